@@ -0,0 +1,76 @@
+package com.sokoby.benchmark;
+
+import com.sokoby.entity.Cart;
+import com.sokoby.entity.Discount;
+import com.sokoby.entity.Order;
+import com.sokoby.entity.Product;
+import com.sokoby.mapper.CartMapper;
+import com.sokoby.mapper.ProductMapper;
+import com.sokoby.payload.CartDto;
+import com.sokoby.payload.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity and mapper paths hit on every order, cart and product read. {@code size} is the number of
+ * order items, cart items and product variants/images; override with {@code -p size=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Order order;
+    private Discount discount;
+    private Product product;
+    private Cart cart;
+    private double subtotal;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        discount = data.percentageDiscount();
+        order = data.order(size, discount);
+        product = data.product(size, size, Math.min(size, 20));
+        cart = data.cart(size);
+        subtotal = 10.0 * size;
+    }
+
+    @Benchmark
+    public Double orderCalculateTotals() {
+        order.calculateTotals();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public double discountCalculateDiscount() {
+        return discount.calculateDiscount(subtotal);
+    }
+
+    @Benchmark
+    public ProductDto productMapperToDto() {
+        return ProductMapper.toDto(product);
+    }
+
+    @Benchmark
+    public CartDto cartMapperToDtoWithItems() {
+        return CartMapper.toDtoWithItems(cart);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sokoby.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.sokoby.service.JWTService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling done by JWTRequestFilter on every authenticated request. {@code legacy} reproduces
+ * the previous path (two verifier constructions, two HMAC checks); the others use JWTService.verify
+ * with the verified-token cache off and on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTFilterBenchmark {
+    private static final String KEY = "benchmark-secret-key-benchmark-secret-key";
+    private static final String ISSUER = "sokoby";
+
+    private Algorithm algorithm;
+    private JWTService uncachedService;
+    private JWTService cachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        algorithm = Algorithm.HMAC256(KEY);
+        uncachedService = newService(0);
+        cachedService = newService(10_000);
+        token = cachedService.generateToken("merchant@example.com", "ROLE_MERCHANT");
+    }
+
+    @Benchmark
+    public String legacy() {
+        JWT.require(algorithm).build().verify(token);
+        return JWT.require(algorithm).withIssuer(ISSUER).build().verify(token).getClaim("username").asString();
+    }
+
+    @Benchmark
+    public String reusedVerifier() {
+        return uncachedService.verify(token).map(uncachedService::getUserEmail).orElse(null);
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return cachedService.verify(token).map(cachedService::getUserEmail).orElse(null);
+    }
+
+    static JWTService newService(long cacheEntries) {
+        JWTService service = new JWTService();
+        ReflectionTestUtils.setField(service, "algorithmKey", KEY);
+        ReflectionTestUtils.setField(service, "issuer", ISSUER);
+        ReflectionTestUtils.setField(service, "expiryTime", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxEntries", cacheEntries);
+        ReflectionTestUtils.invokeMethod(service, "initializeAlgorithm");
+        return service;
+    }
+}
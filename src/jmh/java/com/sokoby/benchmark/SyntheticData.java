@@ -0,0 +1,173 @@
+package com.sokoby.benchmark;
+
+import com.sokoby.entity.Cart;
+import com.sokoby.entity.CartItem;
+import com.sokoby.entity.Collection;
+import com.sokoby.entity.Customer;
+import com.sokoby.entity.Discount;
+import com.sokoby.entity.Inventory;
+import com.sokoby.entity.Order;
+import com.sokoby.entity.OrderItem;
+import com.sokoby.entity.Product;
+import com.sokoby.entity.ProductImage;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.Store;
+import com.sokoby.entity.StoreDailyStats;
+import com.sokoby.entity.Variant;
+import com.sokoby.enums.CollectionType;
+import com.sokoby.enums.ProductStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Detached entity graphs for benchmarks; a fixed seed keeps runs comparable across releases
+public class SyntheticData {
+    private final Random random = new Random(42);
+    private final Store store;
+
+    public SyntheticData() {
+        store = new Store();
+        store.setId(UUID.randomUUID());
+    }
+
+    public Product product(int variants, int images, int collections) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setStore(store);
+        product.setTitle("Product " + random.nextInt(100_000));
+        product.setDescription("Synthetic product used for benchmarking");
+        product.setPrice(price());
+        product.setComparedPrice(price());
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setCreatedAt(new Date());
+        product.setSku(sku("P"));
+        product.setInventory(inventory());
+
+        List<Variant> variantList = new ArrayList<>();
+        for (int i = 0; i < variants; i++) {
+            Variant variant = new Variant();
+            variant.setId(UUID.randomUUID());
+            variant.setName("Variant " + i);
+            variant.setProduct(product);
+            variant.setPrice(price());
+            variant.setSku(sku("V"));
+            variant.setInventoryItem(inventory());
+            variantList.add(variant);
+        }
+        product.setVariants(variantList);
+
+        List<ProductImage> imageList = new ArrayList<>();
+        for (int i = 0; i < images; i++) {
+            ProductImage image = new ProductImage();
+            image.setId(UUID.randomUUID());
+            image.setImageUrl("https://cdn.example.com/" + UUID.randomUUID() + ".jpg");
+            image.setProduct(product);
+            imageList.add(image);
+        }
+        product.setProductImages(imageList);
+
+        List<Collection> collectionList = new ArrayList<>();
+        for (int i = 0; i < collections; i++) {
+            Collection collection = new Collection();
+            collection.setId(UUID.randomUUID());
+            collection.setStore(store);
+            collection.setProductType("Type " + i);
+            collection.setType(i % 2 == 0 ? CollectionType.NEW_ARRIVAL : CollectionType.SALE);
+            collection.setCreatedAt(new Date());
+            collectionList.add(collection);
+        }
+        product.setCollections(collectionList);
+        return product;
+    }
+
+    public Order order(int items, Discount discount) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setDiscount(discount);
+        Product product = product(Math.max(1, Math.min(items, 10)), 0, 0);
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setQuantity(1 + random.nextInt(5));
+            if (i % 2 == 0) {
+                item.setVariant(product.getVariants().get(i % product.getVariants().size()));
+            } else {
+                item.setProduct(product);
+            }
+            orderItems.add(item);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+
+    public Discount percentageDiscount() {
+        Discount discount = new Discount();
+        discount.setCode("SAVE10");
+        discount.setDiscountType("PERCENTAGE");
+        discount.setValue(10.0);
+        discount.setMinimumOrderAmount(5.0);
+        discount.setValidFrom(new Date(System.currentTimeMillis() - 86_400_000L));
+        discount.setValidUntil(new Date(System.currentTimeMillis() + 86_400_000L * 365));
+        discount.setIsActive(true);
+        return discount;
+    }
+
+    public Cart cart(int items) {
+        Customer customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setCustomer(customer);
+        cart.setCreatedAt(new Date());
+        Product product = product(Math.max(1, Math.min(items, 10)), 0, 0);
+        List<CartItem> cartItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            CartItem item = new CartItem();
+            item.setId(UUID.randomUUID());
+            item.setCart(cart);
+            item.setVariant(product.getVariants().get(i % product.getVariants().size()));
+            item.setQuantity(1 + random.nextInt(5));
+            item.setCreatedAt(new Date());
+            cartItems.add(item);
+        }
+        cart.setCartItems(cartItems);
+        return cart;
+    }
+
+    public List<StoreDailyStats> dailyStats(int days) {
+        List<StoreDailyStats> stats = new ArrayList<>(days);
+        LocalDate date = LocalDate.now().minusDays(days);
+        for (int i = 0; i < days; i++) {
+            StoreDailyStats day = new StoreDailyStats();
+            day.setStore(store);
+            day.setStatDate(date.plusDays(i));
+            day.setOrderCount((long) random.nextInt(50));
+            day.setOrderAmount(random.nextInt(50) * price());
+            stats.add(day);
+        }
+        return stats;
+    }
+
+    private SKU sku(String prefix) {
+        SKU sku = new SKU();
+        sku.setId(UUID.randomUUID());
+        sku.setSkuCode(prefix + "-" + random.nextInt(1_000_000));
+        return sku;
+    }
+
+    private Inventory inventory() {
+        Inventory inventory = new Inventory();
+        inventory.setId(UUID.randomUUID());
+        inventory.setStockQuantity(random.nextInt(500));
+        return inventory;
+    }
+
+    private double price() {
+        return 1 + random.nextInt(50_000) / 100.0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sokoby.service;
+
+import com.sokoby.benchmark.SyntheticData;
+import com.sokoby.entity.StoreDailyStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Lives in com.sokoby.service to reach the package-private monthly grouping
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardServiceBenchmark {
+
+    // Number of daily rollup rows grouped into months
+    @Param({"30", "365", "3650"})
+    private int days;
+
+    private List<StoreDailyStats> dailyStats;
+
+    @Setup
+    public void setUp() {
+        dailyStats = new SyntheticData().dailyStats(days);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> groupStatsByMonth() {
+        return DashboardService.groupStatsByMonth(dailyStats);
+    }
+}
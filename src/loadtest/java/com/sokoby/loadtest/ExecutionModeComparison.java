@@ -0,0 +1,62 @@
+package com.sokoby.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same browse/checkout mix twice, once with Tomcat and the background executors on
+ * platform threads and once with spring.threads.virtual.enabled, each against a fresh database,
+ * then prints throughput and p99 side by side. Defaults to 1,000 concurrent users; the loadtest.*
+ * properties of LoadTestRunner apply, with loadtest.report defaulting to
+ * target/loadtest-thread-modes.json.
+ */
+public class ExecutionModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 1000);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT20S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        int products = Integer.getInteger("loadtest.products", 200);
+        int customers = Integer.getInteger("loadtest.customers", 200);
+        String mixSpec = System.getProperty("loadtest.mix", "browse:60,add_to_cart:15,checkout:20,webhook:5");
+        File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-thread-modes.json"));
+
+        List<Map<String, Object>> platform =
+                LoadTestRunner.execute(users, warmup, duration, products, customers, mixSpec, false);
+        List<Map<String, Object>> virtual =
+                LoadTestRunner.execute(users, warmup, duration, products, customers, mixSpec, true);
+
+        System.out.printf("%-32s %12s %12s %12s %12s%n",
+                "endpoint", "platform r/s", "virtual r/s", "platform p99", "virtual p99");
+        Map<String, Map<String, Object>> virtualByEndpoint = byEndpoint(virtual);
+        for (Map<String, Object> row : platform) {
+            Map<String, Object> other = virtualByEndpoint.getOrDefault(row.get("endpoint"), Map.of());
+            System.out.printf("%-32s %12s %12s %12s %12s%n", row.get("endpoint"),
+                    row.get("throughputPerSecond"), other.get("throughputPerSecond"),
+                    row.get("p99Ms"), other.get("p99Ms"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", LoadTestRunner.settings(users, warmup, duration, products, customers, mixSpec));
+        report.put("platform", platform);
+        report.put("virtual", virtual);
+        File parent = reportFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+
+    private static Map<String, Map<String, Object>> byEndpoint(List<Map<String, Object>> rows) {
+        Map<String, Map<String, Object>> index = new LinkedHashMap<>();
+        rows.forEach(row -> index.put(String.valueOf(row.get("endpoint")), row));
+        return index;
+    }
+}
@@ -0,0 +1,161 @@
+package com.sokoby.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sokoby.entity.Inventory;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.StockReservation;
+import com.sokoby.entity.Store;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.payload.ProductDto;
+import com.sokoby.payload.VariantDto;
+import com.sokoby.repository.InventoryRepository;
+import com.sokoby.repository.StockReservationRepository;
+import com.sokoby.repository.VariantRepository;
+import com.sokoby.service.InventoryService;
+import com.sokoby.service.ProductService;
+import com.sokoby.service.VariantService;
+import com.sokoby.util.ThreadFactories;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-SKU flash sale: every worker repeatedly runs the checkout hold transaction (deduct one
+ * unit, insert a stock reservation) against the same SKU, once per slot count, and reports
+ * committed holds per second. With one slot every hold queues on the same row lock; with more
+ * slots concurrent holds land on different rows. Tunable through loadtest.threads,
+ * loadtest.slots (e.g. 1,4,16,32), loadtest.warmup, loadtest.duration and loadtest.report.
+ */
+public class HotSkuBenchmark {
+    private static final int STOCK = 100_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadtest.threads", 64);
+        int[] slotCounts = Arrays.stream(System.getProperty("loadtest.slots", "1,4,16,32").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+        File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-hot-sku.json"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = LoadTestRunner.startApplication(postgres, false)) {
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            InventoryService inventoryService = context.getBean(InventoryService.class);
+            Inventory inventory = seedHotSku(context, transactionTemplate);
+            UUID skuId = inventory.getSku().getId();
+
+            for (int slots : slotCounts) {
+                inventoryService.setSlotCount(inventory.getId(), slots);
+                Inventory reset = new Inventory();
+                reset.setId(inventory.getId());
+                reset.setStockQuantity(STOCK);
+                inventoryService.updateInventory(reset);
+
+                run(context, transactionTemplate, skuId, threads, warmup);
+                long holds = run(context, transactionTemplate, skuId, threads, duration);
+                double perSecond = holds / (duration.toNanos() / 1e9);
+
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("slots", slots);
+                row.put("holds", holds);
+                row.put("holdsPerSecond", Math.round(perSecond));
+                rows.add(row);
+                System.out.printf("%6d slots %12.0f holds/s%n", slots, perSecond);
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("threads", threads);
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("results", rows);
+        File parent = reportFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+
+    private static Inventory seedHotSku(ConfigurableApplicationContext context, TransactionTemplate transactionTemplate) {
+        Store store = LoadTestRunner.seedStore(context);
+        ProductDto productDto = new ProductDto();
+        productDto.setTitle("Flash sale sneaker");
+        productDto.setDescription("Single hot SKU");
+        productDto.setPrice(99.0);
+        productDto.setStatus("ACTIVE");
+        UUID productId = context.getBean(ProductService.class).createProduct(store.getId(), productDto).getId();
+
+        VariantDto variantDto = new VariantDto();
+        variantDto.setSkuCode("HOT-1");
+        variantDto.setPrice(99.0);
+        variantDto.setStockQuantity(STOCK);
+        UUID variantId = context.getBean(VariantService.class).createVariant(productId, variantDto).getVariantId();
+
+        return transactionTemplate.execute(status -> {
+            SKU sku = context.getBean(VariantRepository.class).findById(variantId).orElseThrow().getSku();
+            return context.getBean(InventoryRepository.class).findBySku(sku).orElseThrow();
+        });
+    }
+
+    private static long run(ConfigurableApplicationContext context, TransactionTemplate transactionTemplate,
+                            UUID skuId, int threads, Duration duration) throws InterruptedException {
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+        StockReservationRepository reservationRepository = context.getBean(StockReservationRepository.class);
+        LongAdder holds = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, ThreadFactories.named("hot-sku-", false));
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.execute(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            Boolean held = transactionTemplate.execute(status -> {
+                                if (!inventoryService.deductForSku(skuId, 1, StockMovementReason.RESERVED, null)) {
+                                    return false;
+                                }
+                                StockReservation reservation = new StockReservation();
+                                reservation.setOrderId(UUID.randomUUID());
+                                reservation.setSkuId(skuId);
+                                reservation.setQuantity(1);
+                                reservation.setExpiresAt(new Date(System.currentTimeMillis() + 900_000));
+                                reservationRepository.save(reservation);
+                                return true;
+                            });
+                            if (Boolean.TRUE.equals(held)) {
+                                holds.increment();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            workers.shutdown();
+        }
+        return holds.sum();
+    }
+}
@@ -0,0 +1,107 @@
+package com.sokoby.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Collects per-endpoint latencies and renders throughput and p50/p95/p99 as a table and as JSON
+public class LatencyReport {
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, success);
+    }
+
+    public List<Map<String, Object>> summarize(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        samples.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long[] latencies = entry.getValue().sorted();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("endpoint", entry.getKey());
+                    row.put("requests", latencies.length);
+                    row.put("errors", entry.getValue().errors());
+                    row.put("throughputPerSecond", round(latencies.length / seconds));
+                    row.put("p50Ms", millis(percentile(latencies, 50)));
+                    row.put("p95Ms", millis(percentile(latencies, 95)));
+                    row.put("p99Ms", millis(percentile(latencies, 99)));
+                    row.put("maxMs", millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+                    rows.add(row);
+                });
+        return rows;
+    }
+
+    public void print(List<Map<String, Object>> rows) {
+        System.out.printf("%-32s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-32s %9s %7s %10s %9s %9s %9s %9s%n", row.get("endpoint"), row.get("requests"),
+                    row.get("errors"), row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p95Ms"),
+                    row.get("p99Ms"), row.get("maxMs"));
+        }
+    }
+
+    public void writeJson(File file, Map<String, Object> settings, List<Map<String, Object>> rows) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("endpoints", rows);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.sokoby.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop driver: each virtual user repeatedly picks a scenario by weight and runs it against
+ * the app, recording every HTTP call under its endpoint template.
+ */
+public class LoadDriver {
+
+    public enum Scenario { BROWSE, SEARCH, ADD_TO_CART, CHECKOUT, WEBHOOK }
+
+    public record Shopper(UUID customerId, String email, String token) {
+    }
+
+    public record Fixture(UUID storeId, List<UUID> productIds, List<UUID> variantIds, List<Shopper> shoppers,
+                          List<String> searchTerms) {
+    }
+
+    private final String baseUrl;
+    private final Fixture fixture;
+    private final StripeStub stripe;
+    private final Map<Scenario, Integer> mix;
+    private final int totalWeight;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile LatencyReport report = new LatencyReport();
+    private long measuredNanos;
+
+    public LoadDriver(String baseUrl, Fixture fixture, StripeStub stripe, Map<Scenario, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.fixture = fixture;
+        this.stripe = stripe;
+        this.mix = new LinkedHashMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    // Parses "browse:40,search:25,..." into scenario weights
+    public static Map<Scenario, Integer> parseMix(String spec) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Scenario.valueOf(pair[0].trim().toUpperCase().replace('-', '_')), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    /** Runs a warmup (discarded) and then the measured phase; returns the measured report. */
+    public LatencyReport run(int users, Duration warmup, Duration duration) throws InterruptedException {
+        runPhase(users, warmup);
+        report = new LatencyReport();
+        measuredNanos = runPhase(users, duration);
+        return report;
+    }
+
+    public long measuredNanos() {
+        return measuredNanos;
+    }
+
+    private long runPhase(int users, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Simulated users block on HTTP; virtual threads keep a 1,000-user client cheap in either server mode
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < users; i++) {
+            pool.submit(() -> {
+                while (running.get()) {
+                    try {
+                        runScenario(pick());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // Failures are already recorded per call; keep the user looping
+                    }
+                }
+            });
+        }
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Scenario.BROWSE;
+    }
+
+    private void runScenario(Scenario scenario) throws Exception {
+        Shopper shopper = any(fixture.shoppers());
+        switch (scenario) {
+            case BROWSE -> {
+                call("GET /api/product/list/store/{storeId}", get("/api/product/list/store/" + fixture.storeId() + "?size=20", null));
+                call("GET /api/product/{productId}", get("/api/product/" + any(fixture.productIds()), null));
+            }
+            case SEARCH -> {
+                String term = any(fixture.searchTerms());
+                call("GET /api/product/autocomplete/store/{storeId}",
+                        get("/api/product/autocomplete/store/" + fixture.storeId() + "?query=" + encode(term.substring(0, 3)), null));
+                call("GET /api/product/search/store/{storeId}",
+                        get("/api/product/search/store/" + fixture.storeId() + "?query=" + encode(term), null));
+            }
+            case ADD_TO_CART -> call("POST /api/cart/{customerId}/add",
+                    post("/api/cart/" + shopper.customerId() + "/add", shopper.token(),
+                            Map.of("variantId", any(fixture.variantIds()), "quantity", 1), null));
+            case CHECKOUT -> checkout(shopper);
+            case WEBHOOK -> deliverWebhook();
+        }
+    }
+
+    private void checkout(Shopper shopper) throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>();
+        int lines = 1 + ThreadLocalRandom.current().nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            items.add(Map.of("variantId", any(fixture.variantIds()), "quantity", 1));
+        }
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("storeId", fixture.storeId());
+        order.put("customerEmail", shopper.email());
+        order.put("customerFirstName", "Load");
+        order.put("customerLastName", "Test");
+        order.put("customerPhoneNumber", "5550100");
+        order.put("shippingAddress", Map.of("street", "1 Main St", "city", "Springfield", "state", "IL",
+                "postalCode", "62701", "country", "US"));
+        order.put("orderItems", items);
+
+        HttpResponse<String> created = call("POST /api/orders/with-customer-details",
+                post("/api/orders/with-customer-details", shopper.token(), order, null));
+        if (created.statusCode() / 100 != 2) {
+            return;
+        }
+        JsonNode body = objectMapper.readTree(created.body());
+        call("GET /api/payments/checkout/{orderId}",
+                get("/api/payments/checkout/" + body.path("id").asText(), shopper.token()));
+    }
+
+    private void deliverWebhook() throws Exception {
+        String sessionId = stripe.pollCompletedSession();
+        if (sessionId == null) {
+            return;
+        }
+        String payload = stripe.checkoutCompletedEvent(sessionId);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/payment/webhook"))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", stripe.signatureHeader(payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        call("POST /payment/webhook", request);
+    }
+
+    private HttpResponse<String> call(String endpoint, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response;
+        } catch (Exception e) {
+            report.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String token, Object body, String contentType) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType != null ? contentType : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T any(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -0,0 +1,201 @@
+package com.sokoby.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sokoby.SokobyApplication;
+import com.sokoby.entity.Merchant;
+import com.sokoby.entity.Store;
+import com.sokoby.payload.CustomerDto;
+import com.sokoby.payload.MerchantDto;
+import com.sokoby.payload.ProductDto;
+import com.sokoby.payload.VariantDto;
+import com.sokoby.repository.MerchantRepository;
+import com.sokoby.repository.StoreRepository;
+import com.sokoby.service.CustomerService;
+import com.sokoby.service.MerchantService;
+import com.sokoby.service.ProductService;
+import com.sokoby.service.VariantService;
+import com.stripe.Stripe;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application against an embedded Postgres and the local Stripe stub, seeds a store,
+ * then drives a weighted browse/search/cart/checkout/webhook mix and reports per-endpoint
+ * throughput and p50/p95/p99 latency. Tunable through system properties:
+ * loadtest.users, loadtest.warmup, loadtest.duration (ISO-8601, e.g. PT60S), loadtest.products,
+ * loadtest.customers, loadtest.mix (e.g. browse:40,search:25,add_to_cart:15,checkout:15,webhook:5),
+ * loadtest.virtual-threads (serve requests on virtual threads) and loadtest.report (JSON output path).
+ */
+public class LoadTestRunner {
+    private static final String WEBHOOK_SECRET = "whsec_loadtest";
+    private static final String[] WORDS = {"cotton", "linen", "denim", "leather", "wool", "canvas", "silk",
+            "shirt", "jacket", "trousers", "sneaker", "boot", "scarf", "backpack", "hoodie", "dress"};
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 32);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        int products = Integer.getInteger("loadtest.products", 200);
+        int customers = Integer.getInteger("loadtest.customers", 50);
+        String mixSpec = System.getProperty("loadtest.mix", "browse:40,search:25,add_to_cart:15,checkout:15,webhook:5");
+        boolean virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+        File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        Map<String, Object> settings = settings(users, warmup, duration, products, customers, mixSpec);
+        settings.put("virtualThreads", virtualThreads);
+        LatencyReport report = new LatencyReport();
+        List<Map<String, Object>> rows = execute(users, warmup, duration, products, customers, mixSpec, virtualThreads);
+        report.print(rows);
+        report.writeJson(reportFile, settings, rows);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+
+    /**
+     * Starts a fresh database and application in the given request-thread mode, seeds it, runs the
+     * warmup and measured phases and returns the per-endpoint summary rows.
+     */
+    static List<Map<String, Object>> execute(int users, Duration warmup, Duration duration, int products,
+                                             int customers, String mixSpec, boolean virtualThreads) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             StripeStub stripe = new StripeStub(WEBHOOK_SECRET);
+             ConfigurableApplicationContext context = startApplication(postgres, virtualThreads)) {
+
+            // PaymentServiceImpl sets Stripe.apiKey at startup; only the API base needs redirecting
+            Stripe.overrideApiBase(stripe.baseUrl());
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+            LoadDriver.Fixture fixture = seed(context, baseUrl, products, customers);
+            LoadDriver driver = new LoadDriver(baseUrl, fixture, stripe, LoadDriver.parseMix(mixSpec));
+
+            LatencyReport report = driver.run(users, warmup, duration);
+            return report.summarize(driver.measuredNanos());
+        }
+    }
+
+    static Map<String, Object> settings(int users, Duration warmup, Duration duration, int products,
+                                        int customers, String mixSpec) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", users);
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        settings.put("products", products);
+        settings.put("customers", customers);
+        settings.put("mix", mixSpec);
+        return settings;
+    }
+
+    static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, boolean virtualThreads) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.threads.virtual.enabled", virtualThreads);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        properties.put("spring.security.oauth2.client.registration.google.client-id", "loadtest");
+        properties.put("spring.security.oauth2.client.registration.google.client-secret", "loadtest");
+        properties.put("spring.security.oauth2.client.registration.google.redirect-uri", "http://localhost/oauth2");
+        properties.put("jwt.algorithm.key", "loadtest-secret-loadtest-secret");
+        properties.put("jwt.issuer", "sokoby-loadtest");
+        properties.put("jwt.expiry.duration", Duration.ofHours(2).toMillis());
+        properties.put("client.url", "http://localhost");
+        properties.put("stripe.secret.key", "sk_test_loadtest");
+        properties.put("stripe.public.key", "pk_test_loadtest");
+        properties.put("stripe.webhook.secret", WEBHOOK_SECRET);
+        properties.put("aws.s3.bucket-name", "loadtest");
+        properties.put("aws.s3.region", "us-east-1");
+        properties.put("aws.access-key-id", "loadtest");
+        properties.put("aws.secret-key", "loadtest");
+        properties.put("app.cors.allowed-origins", "http://localhost");
+        properties.put("app.success.url", "http://localhost/");
+        properties.put("app.cancel.url", "http://localhost/cancel");
+        properties.put("app.subscription.success.url", "http://localhost/subscription");
+        properties.put("app.subscription.cancel.url", "http://localhost/subscription/cancel");
+        properties.put("logging.level.com.sokoby", "WARN");
+        return new SpringApplicationBuilder(SokobyApplication.class).properties(properties).run();
+    }
+
+    private static LoadDriver.Fixture seed(ConfigurableApplicationContext context, String baseUrl,
+                                           int productCount, int customerCount) throws Exception {
+        Store store = seedStore(context);
+
+        ProductService productService = context.getBean(ProductService.class);
+        VariantService variantService = context.getBean(VariantService.class);
+        List<UUID> productIds = new ArrayList<>();
+        List<UUID> variantIds = new ArrayList<>();
+        List<String> searchTerms = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            String title = WORDS[i % WORDS.length] + " " + WORDS[(i * 7 + 3) % WORDS.length] + " " + i;
+            ProductDto productDto = new ProductDto();
+            productDto.setTitle(title);
+            productDto.setDescription("Load test product " + title);
+            productDto.setPrice(10.0 + i % 90);
+            productDto.setStatus("ACTIVE");
+            UUID productId = productService.createProduct(store.getId(), productDto).getId();
+            productIds.add(productId);
+            for (int v = 0; v < 3; v++) {
+                VariantDto variantDto = new VariantDto();
+                variantDto.setSkuCode("LT-" + i + "-" + v);
+                variantDto.setPrice(productDto.getPrice() + v);
+                variantDto.setStockQuantity(1_000_000);
+                variantIds.add(variantService.createVariant(productId, variantDto).getVariantId());
+            }
+            if (i < WORDS.length) {
+                searchTerms.add(WORDS[i]);
+            }
+        }
+
+        CustomerService customerService = context.getBean(CustomerService.class);
+        HttpClient client = HttpClient.newHttpClient();
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<LoadDriver.Shopper> shoppers = new ArrayList<>();
+        for (int i = 0; i < customerCount; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Shopper " + i);
+            customerDto.setEmail("shopper" + i + "@loadtest.local");
+            customerDto.setPassword("loadtest-password");
+            customerDto.setPhoneNumber("555010" + i);
+            UUID customerId = customerService.createCustomer(store.getId(), customerDto).getId();
+
+            String login = objectMapper.writeValueAsString(Map.of("email", customerDto.getEmail(), "password", customerDto.getPassword()));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/customer/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(login))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            String token = objectMapper.readTree(response.body()).path("token").asText();
+            shoppers.add(new LoadDriver.Shopper(customerId, customerDto.getEmail(), token));
+        }
+        return new LoadDriver.Fixture(store.getId(), productIds, variantIds, shoppers, searchTerms);
+    }
+
+    static Store seedStore(ConfigurableApplicationContext context) {
+        MerchantDto merchantDto = new MerchantDto();
+        merchantDto.setEmail("merchant@loadtest.local");
+        merchantDto.setPassword("loadtest-password");
+        merchantDto.setFirstName("Load");
+        merchantDto.setLastName("Test");
+        context.getBean(MerchantService.class).createNewMerchant(merchantDto);
+        Merchant merchant = context.getBean(MerchantRepository.class).findByEmail(merchantDto.getEmail()).orElseThrow();
+
+        Store store = new Store();
+        store.setMerchant(merchant);
+        store.setName("Load Test Store");
+        store.setDomain("loadtest.local");
+        store.setDescription("Seeded by LoadTestRunner");
+        return context.getBean(StoreRepository.class).save(store);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sokoby.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Stripe API. Answers {@code POST /v1/checkout/sessions} the way
+ * {@code Session.create} expects and remembers each session so the driver can later deliver a
+ * signed {@code checkout.session.completed} event for it, as Stripe's webhook delivery would.
+ */
+public class StripeStub implements AutoCloseable {
+    private final HttpServer server;
+    private final String webhookSecret;
+    private final ConcurrentLinkedQueue<String> completedSessions = new ConcurrentLinkedQueue<>();
+
+    public StripeStub(String webhookSecret) throws IOException {
+        this.webhookSecret = webhookSecret;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/checkout/sessions", this::createSession);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Next session whose payment "completed" on Stripe's side, or null when none are waiting
+    public String pollCompletedSession() {
+        return completedSessions.poll();
+    }
+
+    public String checkoutCompletedEvent(String sessionId) {
+        return """
+                {"id":"evt_%s","object":"event","api_version":"2024-06-20","type":"checkout.session.completed",
+                 "created":%d,"data":{"object":{"id":"%s","object":"checkout.session","mode":"payment",
+                 "payment_intent":"pi_%s","payment_status":"paid","status":"complete"}}}"""
+                .formatted(UUID.randomUUID().toString().replace("-", ""), System.currentTimeMillis() / 1000,
+                        sessionId, sessionId);
+    }
+
+    // Stripe-Signature header: t=<unix seconds>,v1=hex(HMAC-SHA256(secret, "t.payload"))
+    public String signatureHeader(String payload) {
+        long timestamp = System.currentTimeMillis() / 1000;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] signature = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign webhook payload", e);
+        }
+    }
+
+    private void createSession(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":{\"message\":\"Method not allowed\"}}");
+            return;
+        }
+        String sessionId = "cs_test_" + UUID.randomUUID().toString().replace("-", "");
+        String body = """
+                {"id":"%s","object":"checkout.session","mode":"payment","status":"open","payment_status":"unpaid",
+                 "payment_intent":"pi_%s","url":"%s/pay/%s"}""".formatted(sessionId, sessionId, baseUrl(), sessionId);
+        completedSessions.add(sessionId);
+        respond(exchange, 200, body);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Request-Id", "req_" + UUID.randomUUID());
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
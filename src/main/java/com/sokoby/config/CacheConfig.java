@@ -0,0 +1,41 @@
+package com.sokoby.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(properties.getDefaultTtl(), properties.getDefaultMaxEntries()));
+
+        // Caches with an explicit policy are registered up front; anything else is created lazily with the defaults
+        properties.getSpecs().forEach((name, spec) -> {
+            Duration ttl = spec.getTtl() != null ? spec.getTtl() : properties.getDefaultTtl();
+            long maxEntries = spec.getMaxEntries() != null ? spec.getMaxEntries() : properties.getDefaultMaxEntries();
+            cacheManager.registerCustomCache(name, builder(ttl, maxEntries).build());
+        });
+        // Evictions and puts inside a transaction wait for its commit, so a concurrent read cannot
+        // re-cache the pre-commit row for a whole TTL
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private Caffeine<Object, Object> builder(Duration ttl, long maxEntries) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats();
+    }
+}
@@ -0,0 +1,25 @@
+package com.sokoby.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    // Applied to any cache without its own entry under specs
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    private long defaultMaxEntries = 10_000;
+
+    private Map<String, Spec> specs = new HashMap<>();
+
+    @Data
+    public static class Spec {
+        private Duration ttl;
+        private Long maxEntries;
+    }
+}
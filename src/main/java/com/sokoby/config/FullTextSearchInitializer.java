@@ -0,0 +1,54 @@
+package com.sokoby.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Adds the generated tsvector columns and GIN indexes used by the full-text search queries.
+// Postgres keeps the generated columns up to date on every insert/update, and every statement is
+// idempotent, so this is safe to run against both freshly generated and existing schemas.
+@Component
+public class FullTextSearchInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchInitializer.class);
+
+    private static final List<String> STATEMENTS = List.of(
+            "ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('english', coalesce(name, '')), 'A') || " +
+                    "setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector)",
+            "ALTER TABLE stores ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', translate(coalesce(domain, ''), '.-', '  ')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_stores_search_vector ON stores USING GIN (search_vector)",
+            "ALTER TABLE customers ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(email, '') || ' ' || translate(coalesce(email, ''), '@.-_', '    ')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_customers_search_vector ON customers USING GIN (search_vector)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // Taking the EntityManagerFactory guarantees Hibernate has generated the tables first
+    public FullTextSearchInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                     @Value("${app.search.full-text-enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void createSearchColumns() {
+        if (!enabled) {
+            logger.info("Full-text search disabled, skipping search column setup");
+            return;
+        }
+        STATEMENTS.forEach(jdbcTemplate::execute);
+        logger.info("Full-text search columns and indexes are in place");
+    }
+}
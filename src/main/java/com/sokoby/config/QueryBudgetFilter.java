@@ -0,0 +1,103 @@
+package com.sokoby.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sokoby.payload.ErrorResponse;
+import com.sokoby.util.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+// Wraps the whole request (including security filters) in a QueryCounter scope, publishes the
+// counts tagged by controller method, and enforces the configured statement budget. In FAIL mode the
+// response is held back until the count is known, so an over-budget request answers 500 instead of
+// failing after its body has already gone out.
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    public static final String ENDPOINT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".endpoint";
+
+    public static final String EXCEEDED_HEADER = "X-Query-Budget-Exceeded";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetProperties properties;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, QueryBudgetProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = properties.getMode() == QueryBudgetProperties.Mode.FAIL
+                ? new ContentCachingResponseWrapper(response) : null;
+        QueryCounter.start();
+        QueryCounter.Stats stats;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            stats = QueryCounter.stop();
+        }
+
+        try {
+            String message = checkBudget(request, stats);
+            if (message != null && buffered != null) {
+                buffered.resetBuffer();
+                buffered.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                buffered.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                buffered.setHeader(EXCEEDED_HEADER, message);
+                objectMapper.writeValue(buffered.getOutputStream(),
+                        new ErrorResponse("Query budget exceeded: " + message, "QUERY_BUDGET_EXCEEDED"));
+            }
+        } finally {
+            if (buffered != null) {
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    // Publishes the request's counts; returns a description when it went over its statement budget
+    private String checkBudget(HttpServletRequest request, QueryCounter.Stats stats) {
+        Object endpoint = request.getAttribute(ENDPOINT_ATTRIBUTE);
+        if (endpoint == null || stats == null) {
+            return null;
+        }
+        record("sokoby.request.sql.statements", endpoint.toString(), stats.getStatements());
+        record("sokoby.request.sql.rows", endpoint.toString(), stats.getRows());
+        record("sokoby.request.entity.loads", endpoint.toString(), stats.getEntityLoads());
+
+        int budget = properties.maxStatementsFor(endpoint.toString());
+        if (budget <= 0 || stats.getStatements() <= budget) {
+            return null;
+        }
+        String message = String.format("%s executed %d SQL statements (budget %d, %d rows, %d entity loads)",
+                endpoint, stats.getStatements(), budget, stats.getRows(), stats.getEntityLoads());
+        logger.warn("Query budget exceeded: {}", message);
+        return message;
+    }
+
+    private void record(String name, String endpoint, long value) {
+        DistributionSummary.builder(name)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,29 @@
+package com.sokoby.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode { LOG, FAIL }
+
+    private boolean enabled = true;
+
+    // LOG in production; set FAIL in tests so an N+1 regression breaks the build
+    private Mode mode = Mode.LOG;
+
+    // Statement budget for endpoints without their own entry; 0 disables the check
+    private int defaultMaxStatements = 0;
+
+    // Keyed by "ControllerSimpleName.methodName"
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int maxStatementsFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultMaxStatements);
+    }
+}
@@ -0,0 +1,126 @@
+package com.sokoby.config;
+
+import com.sokoby.util.QueryCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Counts JDBC statements, rows and entity loads for the current request; see QueryBudgetFilter
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryCountingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCountingCustomizer() {
+        Interceptor interceptor = new Interceptor() {
+            @Override
+            public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+                QueryCounter.entityLoaded();
+                return false;
+            }
+        };
+        return properties -> properties.put("hibernate.session_factory.interceptor", interceptor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(MeterRegistry meterRegistry,
+                                                                       QueryBudgetProperties properties) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(meterRegistry, properties));
+        // Ahead of Spring Security so lookups done while authenticating are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod handlerMethod) {
+                    request.setAttribute(QueryBudgetFilter.ENDPOINT_ATTRIBUTE,
+                            handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+                }
+                return true;
+            }
+        });
+    }
+
+    // JDBC proxies: Connection -> Statement -> ResultSet, counting executions and rows read
+    private static Object wrap(Object result) {
+        if (result instanceof CallableStatement statement) return proxy(CallableStatement.class, statement);
+        if (result instanceof PreparedStatement statement) return proxy(PreparedStatement.class, statement);
+        if (result instanceof Statement statement) return proxy(Statement.class, statement);
+        if (result instanceof ResultSet resultSet) return proxy(ResultSet.class, resultSet);
+        if (result instanceof Connection connection) return proxy(Connection.class, connection);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(QueryCountingConfig.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("unwrap") && args != null && args[0] instanceof Class<?> iface && iface.isInstance(target)) {
+            return target;
+        }
+        if (name.equals("isWrapperFor") && args != null && args[0] instanceof Class<?> iface && iface.isInstance(target)) {
+            return true;
+        }
+
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+
+        if (target instanceof Statement && name.startsWith("execute")) {
+            QueryCounter.statementExecuted();
+        } else if (target instanceof ResultSet && name.equals("next") && Boolean.TRUE.equals(result)) {
+            QueryCounter.rowRead();
+        }
+        // Keep wrapping JDBC objects handed out (statements, result sets, connections), but never ourselves
+        if (result == target || name.equals("unwrap")) {
+            return result;
+        }
+        return wrap(result);
+    }
+}
@@ -12,14 +12,16 @@ public final class SecurityConstants {
             "/payment/webhook",
             "/payment/**",
             "/api/cart/**",
-            "/api/product/**"
+            "/api/product/**",
+            "/api/inventory/availability"
     };
 
     // Merchant endpoints
     public static final String[] MERCHANT_ENDPOINTS = {
             "/api/merchant/**",
             "/api/discounts/**",
-            "/api/inventory/**"
+            "/api/inventory/**",
+            "/api/cache/**"
     };
 
     // Customer endpoints
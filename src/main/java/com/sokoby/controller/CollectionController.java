@@ -1,6 +1,7 @@
 package com.sokoby.controller;
 
 import com.sokoby.payload.CollectionDto;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.service.CollectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -53,6 +54,14 @@ public class CollectionController {
         return ResponseEntity.ok(collections);
     }
 
+    @GetMapping("/store/{storeId}/cursor")
+    public ResponseEntity<CursorPage<CollectionDto>> getCollectionsByStoreIdCursor(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(collectionService.getCategoriesByStoreIdAfter(storeId, cursor, size));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CollectionDto> updateCollection(
             @PathVariable UUID id,
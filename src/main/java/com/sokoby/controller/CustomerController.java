@@ -1,5 +1,6 @@
 package com.sokoby.controller;
 
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.CustomerDto;
 import com.sokoby.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -74,6 +75,15 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.searchCustomersByStore(storeId, query, pageable));
     }
 
+    @GetMapping("/search/store/{storeId}/cursor")
+    public ResponseEntity<CursorPage<CustomerDto>> searchCustomersByStoreCursor(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(customerService.searchCustomersByStoreAfter(storeId, query, cursor, size));
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<CustomerDto> updateCustomer(
             @PathVariable UUID id,
@@ -1,13 +1,24 @@
 package com.sokoby.controller;
 
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sokoby.entity.Merchant;
+import com.sokoby.repository.StoreRepository;
 import com.sokoby.service.DashboardService;
+import com.sokoby.service.DashboardStatsService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,12 +30,17 @@ import lombok.extern.slf4j.Slf4j;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStatsService dashboardStatsService;
+    private final StoreRepository storeRepository;
 
     @GetMapping("/store/{storeId}")
-    public ResponseEntity<?> getDashboardStats(@PathVariable String storeId) {
+    public ResponseEntity<?> getDashboardStats(
+            @PathVariable String storeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         log.info("Fetching dashboard stats for store: {}", storeId);
         try {
-            var stats = dashboardService.getDashboardStats(storeId);
+            var stats = dashboardService.getDashboardStats(storeId, from, to);
             log.info("Successfully fetched dashboard stats for store: {}", storeId);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -32,4 +48,20 @@ public class DashboardController {
             return ResponseEntity.internalServerError().body("Error fetching dashboard stats: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/store/{storeId}/rebuild")
+    public ResponseEntity<?> rebuildDashboardStats(@PathVariable UUID storeId, @AuthenticationPrincipal Object principal) {
+        // Rewrites the store's rollups, so only the store's own merchant may trigger it
+        if (!(principal instanceof Merchant merchant) || !storeRepository.existsByIdAndMerchantId(storeId, merchant.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Rebuilding dashboard stats for store: {}", storeId);
+        try {
+            dashboardStatsService.rebuildStoreStats(storeId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Error rebuilding dashboard stats for store: {}", storeId, e);
+            return ResponseEntity.internalServerError().body("Error rebuilding dashboard stats: " + e.getMessage());
+        }
+    }
+} 
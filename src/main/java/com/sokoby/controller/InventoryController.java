@@ -2,14 +2,27 @@ package com.sokoby.controller;
 
 import com.sokoby.entity.Inventory;
 import com.sokoby.mapper.InventoryMapper;
+import com.sokoby.mapper.InventoryMovementMapper;
+import com.sokoby.payload.AvailabilityRequestDto;
+import com.sokoby.payload.BulkStockRequestDto;
+import com.sokoby.payload.BulkStockResultDto;
 import com.sokoby.payload.InventoryDto;
+import com.sokoby.payload.InventoryMovementDto;
+import com.sokoby.payload.StockLevelDto;
+import com.sokoby.service.InventoryBulkService;
+import com.sokoby.service.InventoryLedgerService;
 import com.sokoby.service.InventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -18,10 +31,15 @@ import java.util.stream.Collectors;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final InventoryBulkService inventoryBulkService;
 
     @Autowired
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, InventoryLedgerService inventoryLedgerService,
+                               InventoryBulkService inventoryBulkService) {
         this.inventoryService = inventoryService;
+        this.inventoryLedgerService = inventoryLedgerService;
+        this.inventoryBulkService = inventoryBulkService;
     }
 
     @GetMapping
@@ -59,7 +77,8 @@ public class InventoryController {
     public ResponseEntity<InventoryDto> updateInventory(
             @PathVariable UUID id,
             @RequestBody InventoryDto dto) {
-        Inventory inventory = inventoryService.getInventoryById(id);
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
         inventory.setStockQuantity(dto.getStockQuantity());
         Inventory updatedInventory = inventoryService.updateInventory(inventory);
         return ResponseEntity.ok(InventoryMapper.toDto(updatedInventory));
@@ -81,6 +100,42 @@ public class InventoryController {
         return ResponseEntity.ok().build();
     }
 
+    // Warehouse sync: thousands of SET or DELTA rows by SKU code or barcode, with per-row failures in the result
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('MERCHANT')")
+    public ResponseEntity<BulkStockResultDto> bulkUpdateStock(@RequestBody BulkStockRequestDto request) {
+        return ResponseEntity.ok(inventoryBulkService.apply(request.getMode(), request.getRows()));
+    }
+
+    // Opt-in striping for flash-sale SKUs; slotCount 0 or 1 turns it off again
+    @PutMapping("/{id}/slots")
+    public ResponseEntity<InventoryDto> setSlotCount(
+            @PathVariable UUID id,
+            @RequestParam int slotCount) {
+        return ResponseEntity.ok(InventoryMapper.toDto(inventoryService.setSlotCount(id, slotCount)));
+    }
+
+    @GetMapping("/sku/{skuId}/movements")
+    public ResponseEntity<List<InventoryMovementDto>> getMovements(
+            @PathVariable UUID skuId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(inventoryLedgerService.recentMovements(skuId, limit).stream()
+                .map(InventoryMovementMapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    // Ledger-derived level, now or as of a past instant
+    @GetMapping("/sku/{skuId}/level")
+    public ResponseEntity<StockLevelDto> getStockLevel(
+            @PathVariable UUID skuId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        if (at == null) {
+            return ResponseEntity.ok(new StockLevelDto(skuId, inventoryLedgerService.currentLevel(skuId), new Date()));
+        }
+        Date asOf = Date.from(at);
+        return ResponseEntity.ok(new StockLevelDto(skuId, inventoryLedgerService.levelAt(skuId, asOf), asOf));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteInventory(@PathVariable UUID id) {
         inventoryService.deleteInventory(id);
@@ -103,6 +158,12 @@ public class InventoryController {
         return ResponseEntity.ok(available);
     }
 
+    // Availability for a whole product grid or cart in one call, keyed by the requested ids
+    @PostMapping("/availability")
+    public ResponseEntity<Map<UUID, Boolean>> checkAvailability(@RequestBody List<AvailabilityRequestDto> items) {
+        return ResponseEntity.ok(inventoryService.checkAvailability(items));
+    }
+
     @PostMapping("/variant/{variantId}/reserve")
     public ResponseEntity<Void> reserveStock(
             @PathVariable UUID variantId,
@@ -1,5 +1,6 @@
 package com.sokoby.controller;
 
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.OrderDto;
 import com.sokoby.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +46,14 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/store/{storeId}/cursor")
+    public ResponseEntity<CursorPage<OrderDto>> getOrdersByStoreIdCursor(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByStoreIdAfter(storeId, cursor, size));
+    }
+
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto dto) {
         OrderDto createdOrder = orderService.createOrder(dto);
@@ -24,8 +24,11 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.ProductCreationDto;
 import com.sokoby.payload.ProductDto;
+import com.sokoby.payload.ProductSuggestionDto;
+import com.sokoby.payload.ProductSummaryDto;
 import com.sokoby.service.ProductService;
 
 @RestController
@@ -51,6 +54,23 @@ public class ProductController {
         ProductCreationDto product = productService.getProductById(productId);
         return ResponseEntity.ok(product);
     }
+    @GetMapping("/list")
+    public ResponseEntity<CursorPage<ProductSummaryDto>> listProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.listProducts(cursor, size));
+    }
+
+    @GetMapping("/list/store/{storeId}")
+    public ResponseEntity<CursorPage<ProductSummaryDto>> listProductsByStore(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.listProductsByStore(storeId, cursor, size));
+    }
+
+    // Superseded by /list/store/{storeId}; kept for existing clients
+    @Deprecated
     @GetMapping("/store/{storeId}")
     public ResponseEntity<List<ProductDto>> getProductsByStoreId(@PathVariable UUID storeId) {
         return ResponseEntity.ok(productService.getProductsByStoreId(storeId));
@@ -72,6 +92,31 @@ public class ProductController {
         return ResponseEntity.ok(productService.searchProducts(query, pageable));
     }
 
+    @GetMapping("/autocomplete/store/{storeId}")
+    public ResponseEntity<List<ProductSuggestionDto>> autocomplete(
+            @PathVariable UUID storeId,
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.autocomplete(storeId, query, limit));
+    }
+
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> searchProductsByCursor(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProductsAfter(query, cursor, size));
+    }
+
+    @GetMapping("/search/store/{storeId}/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> searchProductsByStoreCursor(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProductsByStoreAfter(storeId, query, cursor, size));
+    }
+
     @GetMapping("/search/store/{storeId}")
     public ResponseEntity<Page<ProductDto>> searchProductsByStore(
             @PathVariable UUID storeId,
@@ -89,6 +134,8 @@ public class ProductController {
         return ResponseEntity.ok(productService.searchProductsByStore(storeId, query, pageable));
     }
 
+    // Superseded by /list; kept for existing clients
+    @Deprecated
     @GetMapping("/getAll")
     public ResponseEntity<List<ProductDto>> getAllProducts() {
         return ResponseEntity.ok(productService.getAllProducts());
@@ -1,5 +1,6 @@
 package com.sokoby.controller;
 
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.VariantDto;
 import com.sokoby.service.VariantService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +60,14 @@ public class VariantController {
         return ResponseEntity.ok(variantService.searchVariants(query, pageable));
     }
 
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<VariantDto>> searchVariantsByCursor(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(variantService.searchVariantsAfter(query, cursor, size));
+    }
+
     @GetMapping("/search/product/{productId}")
     public ResponseEntity<Page<VariantDto>> searchVariantsByProduct(
             @PathVariable UUID productId,
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = @Index(name = "idx_categories_store_created_at", columnList = "store_id, created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
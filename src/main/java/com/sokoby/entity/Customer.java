@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = @Index(name = "idx_customers_store_created_at", columnList = "store_id, created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
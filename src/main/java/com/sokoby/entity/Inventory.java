@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -25,13 +26,32 @@ public class Inventory {
     @JoinColumn(name = "sku_id", nullable = false)
     private SKU sku;
 
+    // Always 0 while the SKU is striped; the stock then lives in its InventorySlot rows
     @Column(name = "stock_quantity", nullable = false)
     private Integer stockQuantity;
 
+    // High-contention mode: above 0 the stock is spread over this many InventorySlot rows
+    @Column(name = "slot_count", nullable = false)
+    private Integer slotCount = 0;
+
+    // Read-only total of the slots; services set it only to keep an already loaded entity current
+    @Formula("(case when slot_count > 0 then (select coalesce(sum(s.stock_quantity), 0) " +
+            "from inventory_slots s where s.sku_id = sku_id) end)")
+    private Integer slotQuantity;
+
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", nullable = false, updatable = false)
     private Date createdAt;
 
+    public boolean isStriped() {
+        return slotCount != null && slotCount > 0;
+    }
+
+    // Reads see the sum of the slots for striped SKUs
+    public Integer getStockQuantity() {
+        return isStriped() && slotQuantity != null ? slotQuantity : stockQuantity;
+    }
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = new Date();
@@ -0,0 +1,48 @@
+package com.sokoby.entity;
+
+import com.sokoby.enums.StockMovementReason;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Append-only record of one stock change; rows are inserted, never updated, and pruned only after compaction
+@Entity
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_sku", columnList = "sku_id, id"),
+        @Index(name = "idx_inventory_movements_created", columnList = "created_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventoryMovement {
+    // Sequential so a snapshot can record exactly which movements it covers
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "sku_id", nullable = false)
+    private UUID skuId;
+
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false)
+    private StockMovementReason reason;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Date createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = new Date();
+    }
+}
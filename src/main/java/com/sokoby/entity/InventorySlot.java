@@ -0,0 +1,31 @@
+package com.sokoby.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+// One stripe of a high-contention SKU's stock; checkouts take from different slots in parallel
+@Entity
+@Table(name = "inventory_slots", uniqueConstraints = @UniqueConstraint(name = "uk_inventory_slots_sku_slot",
+        columnNames = {"sku_id", "slot"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventorySlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "sku_id", nullable = false)
+    private UUID skuId;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "stock_quantity", nullable = false)
+    private Integer stockQuantity;
+}
@@ -0,0 +1,37 @@
+package com.sokoby.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Stock level of a SKU after every movement up to throughMovementId; written by ledger compaction
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+        @Index(name = "idx_inventory_snapshots_sku_through", columnList = "sku_id, through_movement_id"),
+        @Index(name = "idx_inventory_snapshots_sku_taken", columnList = "sku_id, taken_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventorySnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "sku_id", nullable = false)
+    private UUID skuId;
+
+    @Column(name = "stock_level", nullable = false)
+    private Integer stockLevel;
+
+    @Column(name = "through_movement_id", nullable = false)
+    private Long throughMovementId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "taken_at", nullable = false)
+    private Date takenAt;
+}
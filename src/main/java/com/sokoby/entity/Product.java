@@ -18,12 +18,17 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -32,13 +37,37 @@ import jakarta.persistence.TemporalType;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 @Entity
-@Table(name = "products")
+// Fetch plans used by ProductRepository. Only to-one associations and at most one bag are joined;
+// the remaining collections are loaded with @BatchSize so a page of products costs a fixed number of selects.
+@NamedEntityGraph(name = Product.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("sku"),
+        @NamedAttributeNode("inventory")
+})
+@NamedEntityGraph(name = Product.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("sku"),
+        @NamedAttributeNode("inventory"),
+        @NamedAttributeNode(value = "variants", subgraph = "variant")
+}, subgraphs = @NamedSubgraph(name = "variant", attributeNodes = {
+        @NamedAttributeNode("sku"),
+        @NamedAttributeNode("inventoryItem")
+}))
+@NamedEntityGraph(name = Product.ADMIN_EDIT_GRAPH, attributeNodes = {
+        @NamedAttributeNode("store"),
+        @NamedAttributeNode("sku"),
+        @NamedAttributeNode("inventory"),
+        @NamedAttributeNode("productImages")
+})
+@Table(name = "products", indexes = @Index(name = "idx_products_store_created_at", columnList = "store_id, created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
+    public static final String SUMMARY_GRAPH = "Product.summary";
+    public static final String DETAIL_GRAPH = "Product.detail";
+    public static final String ADMIN_EDIT_GRAPH = "Product.adminEdit";
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -58,6 +87,7 @@ public class Product {
 
     // Ensuring variants are deleted when product is deleted
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL,  fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JsonIgnore
     private List<Variant> variants = new ArrayList<>();
 
@@ -65,6 +95,7 @@ public class Product {
     private Double price;
 
     @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JsonIgnore
     @JoinTable(
             name = "product_collection",
@@ -96,6 +127,8 @@ public class Product {
 
     // Ensuring product images are deleted when product is deleted
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @OrderBy("createdAt ASC, id ASC")
     @JsonIgnore
     private List<ProductImage> productImages = new ArrayList<>();
 
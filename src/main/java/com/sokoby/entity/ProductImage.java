@@ -4,12 +4,13 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Entity
 @Getter
 @Setter
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = @Index(name = "idx_product_images_product_created", columnList = "product_id, created_at"))
 public class ProductImage {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -19,7 +20,27 @@ public class ProductImage {
     @Column(name = "image_url", nullable = false, length = 2000)
     private String imageUrl;
 
+    // Compressed fixed-width renditions; null for images uploaded before derivatives existed
+    @Column(name = "thumbnail_url", length = 2000)
+    private String thumbnailUrl;
+
+    @Column(name = "card_url", length = 2000)
+    private String cardUrl;
+
+    @Column(name = "zoom_url", length = 2000)
+    private String zoomUrl;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
+
+    // Upload order; the first image is the product's primary image in listings and on the detail page
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Date createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = new Date();
+    }
 }
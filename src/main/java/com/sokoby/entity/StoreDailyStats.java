@@ -0,0 +1,46 @@
+package com.sokoby.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Per-store, per-day rollup maintained incrementally as orders and customers change
+@Entity
+@Table(name = "store_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_store_daily_stats", columnNames = {"store_id", "stat_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoreDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "store_id", nullable = false)
+    private Store store;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "order_amount", nullable = false)
+    private Double orderAmount = 0.0;
+
+    // Orders in CONFIRMED or DELIVERED state
+    @Column(name = "sales_order_count", nullable = false)
+    private Long salesOrderCount = 0L;
+
+    @Column(name = "sales_amount", nullable = false)
+    private Double salesAmount = 0.0;
+
+    @Column(name = "new_customer_count", nullable = false)
+    private Long newCustomerCount = 0L;
+}
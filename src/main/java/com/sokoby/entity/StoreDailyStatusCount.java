@@ -0,0 +1,38 @@
+package com.sokoby.entity;
+
+import com.sokoby.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Number of orders created on a given day that are currently in a given status
+@Entity
+@Table(name = "store_daily_status_counts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_store_daily_status_counts", columnNames = {"store_id", "stat_date", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoreDailyStatusCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "store_id", nullable = false)
+    private Store store;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+}
@@ -0,0 +1,60 @@
+package com.sokoby.entity;
+
+import com.sokoby.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+// Durable inbox row for a verified Stripe event, keyed by Stripe's event id so redeliveries collapse
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+        @Index(name = "idx_webhook_events_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_webhook_events_ordering_key", columnList = "ordering_key, event_created")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class StripeWebhookEvent {
+    @Id
+    @Column(name = "id", nullable = false, length = 255)
+    private String id;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    // Events sharing a key (payment intent, subscription, ...) are applied strictly in order
+    @Column(name = "ordering_key", nullable = false)
+    private String orderingKey;
+
+    // Stripe's "created" timestamp, in epoch seconds
+    @Column(name = "event_created", nullable = false)
+    private Long eventCreated;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private WebhookEventStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;
+
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private Date receivedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "processed_at")
+    private Date processedAt;
+}
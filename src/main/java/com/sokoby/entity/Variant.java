@@ -9,7 +9,7 @@ import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "variants")
+@Table(name = "variants", indexes = @Index(name = "idx_variants_created_at", columnList = "created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
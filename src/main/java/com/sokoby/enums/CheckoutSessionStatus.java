@@ -0,0 +1,8 @@
+package com.sokoby.enums;
+
+public enum CheckoutSessionStatus {
+    REQUESTED,  // Outbox row written with the order, session not created yet
+    CREATING,   // Claimed by a worker, Stripe call in flight
+    READY,      // Session created, URL available
+    FAILED      // Gave up after the configured attempts
+}
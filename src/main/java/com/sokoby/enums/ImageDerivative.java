@@ -0,0 +1,18 @@
+package com.sokoby.enums;
+
+// Fixed-width renditions generated for every product image at upload time
+public enum ImageDerivative {
+    THUMBNAIL(200),  // Cart lines, autocomplete, admin tables
+    CARD(480),       // Storefront product grids and listings
+    ZOOM(1600);      // Product detail page
+
+    private final int width;
+
+    ImageDerivative(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
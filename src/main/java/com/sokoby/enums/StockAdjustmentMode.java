@@ -0,0 +1,6 @@
+package com.sokoby.enums;
+
+public enum StockAdjustmentMode {
+    SET,    // Quantity is the new absolute stock level
+    DELTA   // Quantity is added to (or, when negative, taken from) the current level
+}
@@ -0,0 +1,11 @@
+package com.sokoby.enums;
+
+public enum StockMovementReason {
+    INITIAL,     // Opening stock when the inventory row was created
+    ADJUSTMENT,  // Merchant set or reduced the stock level directly
+    RESERVED,    // Taken for an order or an explicit reservation
+    RELEASED,    // Returned from a failed/deleted order or an explicit release
+    EXPIRED,     // Returned by the sweeper when a hold outlived its TTL
+    SOLD,        // Deducted when an order was paid after its hold had lapsed
+    IMPORTED     // Set or adjusted by a bulk stock sync
+}
@@ -0,0 +1,7 @@
+package com.sokoby.enums;
+
+public enum StockReservationStatus {
+    HELD,       // Stock taken off the shelf while the order awaits payment
+    CONVERTED,  // Payment completed, the deduction is permanent
+    RELEASED    // Hold expired or the order failed/was deleted, stock returned
+}
@@ -0,0 +1,8 @@
+package com.sokoby.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
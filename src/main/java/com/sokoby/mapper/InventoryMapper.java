@@ -23,6 +23,7 @@ public class InventoryMapper {
         dto.setSkuId(inventory.getSku().getId());
         dto.setSkuCode(inventory.getSku().getSkuCode());
         dto.setStockQuantity(inventory.getStockQuantity());
+        dto.setSlotCount(inventory.getSlotCount());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.sokoby.mapper;
+
+import com.sokoby.entity.InventoryMovement;
+import com.sokoby.payload.InventoryMovementDto;
+
+public class InventoryMovementMapper {
+
+    private InventoryMovementMapper() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static InventoryMovementDto toDto(InventoryMovement movement) {
+        InventoryMovementDto dto = new InventoryMovementDto();
+        dto.setId(movement.getId());
+        dto.setSkuId(movement.getSkuId());
+        dto.setDelta(movement.getDelta());
+        dto.setReason(movement.getReason().name());
+        dto.setOrderId(movement.getOrderId());
+        dto.setCreatedAt(movement.getCreatedAt());
+        return dto;
+    }
+}
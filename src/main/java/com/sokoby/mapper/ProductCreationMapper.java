@@ -59,13 +59,6 @@ public class ProductCreationMapper {
         return variant;
     }
 
-    public static Inventory toInventoryEntity(SKU sku, Integer stockQuantity) {
-        Inventory inventory = new Inventory();
-        inventory.setSku(sku);
-        inventory.setStockQuantity(stockQuantity != null ? stockQuantity : 0);
-        return inventory;
-    }
-
     public static Collection toCollectionEntity(ProductCreationDto.CollectionDto collectionDto, Store store, Product product) {
         Collection collection = new Collection();
         collection.setProductType(collectionDto.getProductType());
@@ -133,13 +126,7 @@ public class ProductCreationMapper {
             dto.setImages(imageDtos);
         } else if (product.getProductImages() != null && !product.getProductImages().isEmpty()) {
             dto.setImages(product.getProductImages().stream()
-                    .map(image -> {
-                        ImageDto imageDto = new ImageDto();
-                        imageDto.setId(image.getId());
-                        imageDto.setImageUrl(image.getImageUrl());
-                        imageDto.setProductId(image.getId());
-                        return imageDto;
-                    })
+                    .map(ProductImageMapper::toDto)
                     .collect(Collectors.toList()));
         }
 
@@ -13,6 +13,9 @@ public class ProductImageMapper {
             dto.setId(image.getId());
             dto.setProductId(image.getProduct().getId());
             dto.setImageUrl(image.getImageUrl());
+            dto.setThumbnailUrl(image.getThumbnailUrl());
+            dto.setCardUrl(image.getCardUrl());
+            dto.setZoomUrl(image.getZoomUrl());
             return dto;
         }
 
@@ -0,0 +1,13 @@
+package com.sokoby.payload;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+// One line of a bulk availability check; set either variantId or productId
+@Data
+public class AvailabilityRequestDto {
+    private UUID variantId;
+    private UUID productId;
+    private Integer quantity; // Defaults to 1
+}
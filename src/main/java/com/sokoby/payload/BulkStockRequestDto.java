@@ -0,0 +1,12 @@
+package com.sokoby.payload;
+
+import com.sokoby.enums.StockAdjustmentMode;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStockRequestDto {
+    private StockAdjustmentMode mode = StockAdjustmentMode.SET;
+    private List<BulkStockRowDto> rows;
+}
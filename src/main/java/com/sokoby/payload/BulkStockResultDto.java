@@ -0,0 +1,26 @@
+package com.sokoby.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkStockResultDto {
+    private int received;
+    private int applied;
+    private List<Failure> failures = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private int row;          // Zero-based index into the request rows
+        private String skuCode;
+        private String barcode;
+        private String code;
+        private String message;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sokoby.payload;
+
+import lombok.Data;
+
+// One line of a warehouse stock sync; identify the SKU by either skuCode or barcode
+@Data
+public class BulkStockRowDto {
+    private String skuCode;
+    private String barcode;
+    private Integer quantity;
+}
@@ -0,0 +1,15 @@
+package com.sokoby.payload;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+public class CheckoutSessionDto {
+    private UUID orderId;
+    private String status;
+    private String url;
+    private String errorMessage;
+}
@@ -7,5 +7,8 @@ import java.util.UUID;
 public class ImageDto {
     private UUID id;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String zoomUrl;
     private UUID productId;
 }
@@ -10,4 +10,5 @@ public class InventoryDto {
     private UUID skuId;       // Returned in response
     private String skuCode;   // Returned in response
     private Integer stockQuantity; // Stock level
+    private Integer slotCount;     // 0 unless the SKU runs in high-contention mode
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sokoby.payload;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Data
+public class InventoryMovementDto {
+    private Long id;
+    private UUID skuId;
+    private Integer delta;    // Signed change in stock
+    private String reason;
+    private UUID orderId;     // Null unless the movement belongs to an order
+    private Date createdAt;
+}
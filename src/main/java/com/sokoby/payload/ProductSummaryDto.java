@@ -0,0 +1,39 @@
+package com.sokoby.payload;
+
+import com.sokoby.enums.ProductStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+// Flat listing row; populated directly by a JPQL constructor expression
+@Data
+@NoArgsConstructor
+public class ProductSummaryDto {
+    private UUID id;
+    private UUID storeId;
+    private String title;
+    private Double price;
+    private Double comparedPrice;
+    private String status;
+    private Integer stock;
+    private String primaryImageUrl;
+    private Date createdAt;
+    private List<CollectionDto> collections = new ArrayList<>();
+
+    public ProductSummaryDto(UUID id, UUID storeId, String title, Double price, Double comparedPrice,
+                             ProductStatus status, Integer stock, String primaryImageUrl, Date createdAt) {
+        this.id = id;
+        this.storeId = storeId;
+        this.title = title;
+        this.price = price;
+        this.comparedPrice = comparedPrice;
+        this.status = status != null ? status.toString() : null;
+        this.stock = stock != null ? stock : 0;
+        this.primaryImageUrl = primaryImageUrl;
+        this.createdAt = createdAt;
+    }
+}
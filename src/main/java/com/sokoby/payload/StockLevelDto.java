@@ -0,0 +1,18 @@
+package com.sokoby.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Stock level derived from the movement ledger
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDto {
+    private UUID skuId;
+    private Long stockLevel;
+    private Date at;
+}
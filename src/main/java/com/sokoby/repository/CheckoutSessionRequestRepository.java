@@ -0,0 +1,59 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.CheckoutSessionRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CheckoutSessionRequestRepository extends JpaRepository<CheckoutSessionRequest, UUID> {
+
+    Optional<CheckoutSessionRequest> findByOrderId(UUID orderId);
+
+    @Query("SELECT r.orderId FROM CheckoutSessionRequest r WHERE r.status = com.sokoby.enums.CheckoutSessionStatus.REQUESTED " +
+            "AND r.nextAttemptAt <= :now ORDER BY r.nextAttemptAt ASC")
+    List<UUID> findDueOrderIds(@Param("now") Date now, Pageable pageable);
+
+    // Conditional claim so only one worker (or node) calls Stripe for an order at a time, and only
+    // once its retry backoff has elapsed
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutSessionRequest r SET r.status = com.sokoby.enums.CheckoutSessionStatus.CREATING, " +
+            "r.attempts = r.attempts + 1, r.nextAttemptAt = :now, r.updatedAt = :now " +
+            "WHERE r.orderId = :orderId AND r.status = com.sokoby.enums.CheckoutSessionStatus.REQUESTED " +
+            "AND r.nextAttemptAt <= :now")
+    int claim(@Param("orderId") UUID orderId, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE CheckoutSessionRequest r SET r.status = com.sokoby.enums.CheckoutSessionStatus.READY, " +
+            "r.stripeSessionId = :sessionId, r.sessionUrl = :url, r.lastError = null, r.updatedAt = :now " +
+            "WHERE r.orderId = :orderId")
+    int markReady(@Param("orderId") UUID orderId, @Param("sessionId") String sessionId, @Param("url") String url,
+                  @Param("now") Date now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutSessionRequest r SET r.status = com.sokoby.enums.CheckoutSessionStatus.REQUESTED, " +
+            "r.nextAttemptAt = :nextAttemptAt, r.lastError = :error, r.updatedAt = CURRENT_TIMESTAMP WHERE r.orderId = :orderId")
+    int scheduleRetry(@Param("orderId") UUID orderId, @Param("nextAttemptAt") Date nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutSessionRequest r SET r.status = com.sokoby.enums.CheckoutSessionStatus.FAILED, " +
+            "r.lastError = :error, r.updatedAt = CURRENT_TIMESTAMP WHERE r.orderId = :orderId")
+    int markFailed(@Param("orderId") UUID orderId, @Param("error") String error);
+
+    // Requests left in CREATING by a node that died mid-call go back to the queue
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutSessionRequest r SET r.status = com.sokoby.enums.CheckoutSessionStatus.REQUESTED " +
+            "WHERE r.status = com.sokoby.enums.CheckoutSessionStatus.CREATING AND r.nextAttemptAt < :staleBefore")
+    int releaseStale(@Param("staleBefore") Date staleBefore);
+}
@@ -4,12 +4,22 @@ import com.sokoby.entity.Collection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
 public interface CollectionRepository extends JpaRepository<Collection, UUID> {
     List<Collection> findByStoreId(UUID storeId);
     Page<Collection> findByStoreId(UUID storeId, Pageable pageable);
+
+    // Keyset page ordered newest first; see PageCursor
+    @Query("SELECT c FROM Collection c WHERE c.store.id = :storeId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Collection> findByStoreIdAfter(@Param("storeId") UUID storeId, @Param("createdAt") Date createdAt,
+                                        @Param("id") UUID id, Pageable pageable);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +18,8 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
   Page<Customer> findByStoreId(UUID storeId, Pageable pageable);
 
+  List<Customer> findTop3ByStoreIdOrderByCreatedAtDesc(UUID storeId);
+
   Optional<Customer> findByEmailAndStoreId(String email, UUID storeId);
 
   @Query("SELECT c FROM Customer c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
@@ -28,6 +31,27 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :query, '%')))")
   Page<Customer> searchCustomersByStore(@Param("storeId") UUID storeId, @Param("query") String query, Pageable pageable);
 
+  // Keyset page ordered newest first; see PageCursor
+  @Query("SELECT c FROM Customer c WHERE c.store.id = :storeId AND " +
+          "(LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+          "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+          "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+          "ORDER BY c.createdAt DESC, c.id DESC")
+  List<Customer> searchCustomersByStoreAfter(@Param("storeId") UUID storeId, @Param("query") String query,
+                                             @Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
+
+  @Query(value = "SELECT c.* FROM customers c WHERE c.search_vector @@ to_tsquery('simple', :tsQuery) " +
+          "ORDER BY ts_rank(c.search_vector, to_tsquery('simple', :tsQuery)) DESC, c.id",
+          countQuery = "SELECT COUNT(*) FROM customers c WHERE c.search_vector @@ to_tsquery('simple', :tsQuery)",
+          nativeQuery = true)
+  Page<Customer> fullTextSearchCustomers(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+  @Query(value = "SELECT c.* FROM customers c WHERE c.store_id = :storeId AND c.search_vector @@ to_tsquery('simple', :tsQuery) " +
+          "ORDER BY ts_rank(c.search_vector, to_tsquery('simple', :tsQuery)) DESC, c.id",
+          countQuery = "SELECT COUNT(*) FROM customers c WHERE c.store_id = :storeId AND c.search_vector @@ to_tsquery('simple', :tsQuery)",
+          nativeQuery = true)
+  Page<Customer> fullTextSearchCustomersByStore(@Param("storeId") UUID storeId, @Param("tsQuery") String tsQuery, Pageable pageable);
+
   boolean existsByEmailAndStoreId(String email, UUID storeId);
 
   Optional<Customer> findByEmail(String email);
@@ -0,0 +1,34 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.skuId = :skuId ORDER BY m.id DESC")
+    List<InventoryMovement> findRecentBySkuId(@Param("skuId") UUID skuId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM InventoryMovement m WHERE m.skuId = :skuId AND m.id > :afterId")
+    long sumDeltasAfter(@Param("skuId") UUID skuId, @Param("afterId") long afterId);
+
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM InventoryMovement m " +
+            "WHERE m.skuId = :skuId AND m.id > :afterId AND m.createdAt <= :at")
+    long sumDeltasAfterUntil(@Param("skuId") UUID skuId, @Param("afterId") long afterId, @Param("at") Date at);
+
+    // Newest movement old enough that no transaction still writing to the ledger can commit below it
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM InventoryMovement m WHERE m.createdAt < :settledBefore")
+    long findSettledMaxId(@Param("settledBefore") Date settledBefore);
+
+    // Movements below the latest compaction boundary are already folded into snapshots
+    @Modifying
+    @Query("DELETE FROM InventoryMovement m WHERE m.id <= :throughId AND m.createdAt < :createdBefore")
+    int deleteCompacted(@Param("throughId") long throughId, @Param("createdBefore") Date createdBefore);
+}
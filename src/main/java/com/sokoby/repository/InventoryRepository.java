@@ -2,9 +2,16 @@ package com.sokoby.repository;
 
 import com.sokoby.entity.Inventory;
 import com.sokoby.entity.SKU;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +19,39 @@ import java.util.UUID;
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
 
     Optional<Inventory> findBySku(SKU sku);
-}
\ No newline at end of file
+
+    boolean existsBySku(SKU sku);
+
+    // Conditional single-statement stock changes; a return value of 0 means the row was missing, stock was too low
+    // or the SKU is striped (its stock then lives in InventorySlot rows)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity - :quantity " +
+            "WHERE i.sku.id = :skuId AND i.stockQuantity >= :quantity")
+    int decrementStockForSku(@Param("skuId") UUID skuId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity + :quantity WHERE i.sku.id = :skuId AND i.slotCount = 0")
+    int incrementStockForSku(@Param("skuId") UUID skuId, @Param("quantity") int quantity);
+
+    // Bulk availability: (id, stock) per variant or product in one round-trip; stock is null without inventory
+    @Query("SELECT v.id, CAST(CASE WHEN i.slotCount > 0 THEN (SELECT COALESCE(SUM(sl.stockQuantity), 0) FROM InventorySlot sl " +
+            "WHERE sl.skuId = s.id) ELSE i.stockQuantity END AS Integer) " +
+            "FROM Variant v JOIN v.sku s LEFT JOIN s.inventory i WHERE v.id IN :ids")
+    List<Object[]> findStockByVariantIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id, CAST(CASE WHEN i.slotCount > 0 THEN (SELECT COALESCE(SUM(sl.stockQuantity), 0) FROM InventorySlot sl " +
+            "WHERE sl.skuId = s.id) ELSE i.stockQuantity END AS Integer) " +
+            "FROM Product p JOIN p.sku s LEFT JOIN s.inventory i WHERE p.id IN :ids")
+    List<Object[]> findStockByProductIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT i.slotCount FROM Inventory i WHERE i.sku.id = :skuId")
+    Optional<Integer> findSlotCountBySkuId(@Param("skuId") UUID skuId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findByIdForUpdate(@Param("id") UUID id);
+
+    // Fresh, row-locked column value, so an absolute update can be recorded as an exact delta
+    @Query(value = "SELECT stock_quantity FROM inventory_items WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockStockQuantity(@Param("id") UUID id);
+}
@@ -0,0 +1,37 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.InventorySlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InventorySlotRepository extends JpaRepository<InventorySlot, UUID> {
+
+    // Takes the quantity from the first slot, starting at :offset, that has enough stock and is not
+    // locked by another checkout; 0 means no such slot was free
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE inventory_slots SET stock_quantity = stock_quantity - :quantity " +
+            "WHERE stock_quantity >= :quantity AND id = (SELECT id FROM inventory_slots " +
+            "WHERE sku_id = :skuId AND stock_quantity >= :quantity " +
+            "ORDER BY (slot + :offset) % :slots LIMIT 1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int takeFromFreeSlot(@Param("skuId") UUID skuId, @Param("quantity") int quantity,
+                         @Param("offset") int offset, @Param("slots") int slots);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventorySlot s SET s.stockQuantity = s.stockQuantity + :quantity " +
+            "WHERE s.skuId = :skuId AND s.slot = :slot")
+    int addToSlot(@Param("skuId") UUID skuId, @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(SUM(s.stockQuantity), 0) FROM InventorySlot s WHERE s.skuId = :skuId")
+    int sumStockBySkuId(@Param("skuId") UUID skuId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventorySlot s WHERE s.skuId = :skuId ORDER BY s.slot")
+    List<InventorySlot> findBySkuIdForUpdate(@Param("skuId") UUID skuId);
+}
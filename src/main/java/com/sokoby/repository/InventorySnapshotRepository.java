@@ -0,0 +1,37 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, UUID> {
+
+    Optional<InventorySnapshot> findFirstBySkuIdOrderByThroughMovementIdDesc(UUID skuId);
+
+    Optional<InventorySnapshot> findFirstBySkuIdAndTakenAtLessThanEqualOrderByTakenAtDesc(UUID skuId, Date at);
+
+    // Held until commit, so only one node compacts at a time
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('inventory_snapshots'))", nativeQuery = true)
+    boolean tryLockCompaction();
+
+    @Query("SELECT COALESCE(MAX(s.throughMovementId), 0) FROM InventorySnapshot s")
+    long findLatestThroughId();
+
+    // One new snapshot per SKU that moved since its previous snapshot: previous level plus the deltas
+    // in (previous boundary, :throughId]
+    @Modifying
+    @Query(value = "INSERT INTO inventory_snapshots (id, sku_id, stock_level, through_movement_id, taken_at) " +
+            "SELECT gen_random_uuid(), m.sku_id, COALESCE(s.stock_level, 0) + SUM(m.delta), :throughId, :takenAt " +
+            "FROM inventory_movements m " +
+            "LEFT JOIN LATERAL (SELECT p.stock_level, p.through_movement_id FROM inventory_snapshots p " +
+            "WHERE p.sku_id = m.sku_id ORDER BY p.through_movement_id DESC LIMIT 1) s ON TRUE " +
+            "WHERE m.id > COALESCE(s.through_movement_id, 0) AND m.id <= :throughId " +
+            "GROUP BY m.sku_id, s.stock_level", nativeQuery = true)
+    int compactThrough(@Param("throughId") long throughId, @Param("takenAt") Date takenAt);
+}
@@ -2,9 +2,13 @@ package com.sokoby.repository;
 
 import com.sokoby.entity.Order;
 import com.sokoby.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,5 +22,14 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     List<Order> findByStoreId(UUID storeId);
 
+    List<Order> findTop5ByStoreIdOrderByCreatedAtDesc(UUID storeId);
+
+    // Keyset page ordered newest first; see PageCursor
+    @Query("SELECT o FROM Order o WHERE o.store.id = :storeId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByStoreIdAfter(@Param("storeId") UUID storeId, @Param("createdAt") Date createdAt,
+                                   @Param("id") UUID id, Pageable pageable);
+
     Optional<Order> findByPaymentId(UUID id);
 }
\ No newline at end of file
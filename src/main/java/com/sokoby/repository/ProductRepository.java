@@ -2,32 +2,122 @@ package com.sokoby.repository;
 
 import com.sokoby.entity.Product;
 import com.sokoby.enums.CollectionType;
+import com.sokoby.payload.ProductSummaryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+    @EntityGraph(Product.SUMMARY_GRAPH)
     List<Product> findByStoreId(UUID storeId);
 
     // Retrieves all products for a store with pagination
+    @EntityGraph(Product.SUMMARY_GRAPH)
     Page<Product> findByStoreId(UUID storeId, Pageable pageable);
 
+    @Override
+    @EntityGraph(Product.SUMMARY_GRAPH)
+    Page<Product> findAll(Pageable pageable);
+
+    // Single-product fetch plans: DETAIL_GRAPH for read views, ADMIN_EDIT_GRAPH for the edit flows
+    @EntityGraph(Product.DETAIL_GRAPH)
+    Optional<Product> findDetailById(UUID id);
+
+    @EntityGraph(Product.ADMIN_EDIT_GRAPH)
+    Optional<Product> findForEditById(UUID id);
+
     // Search products globally by name or description with pagination
+    @EntityGraph(Product.SUMMARY_GRAPH)
     @Query("SELECT p FROM Product p WHERE LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<Product> searchProducts(@Param("query") String query, Pageable pageable);
 
     // Search products within a specific store by name or description with pagination
+    @EntityGraph(Product.SUMMARY_GRAPH)
     @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND " +
             "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Product> searchProductsByStore(@Param("storeId") UUID storeId, @Param("query") String query, Pageable pageable);
 
+    // Keyset pages ordered newest first; see PageCursor
+    @EntityGraph(Product.SUMMARY_GRAPH)
+    @Query("SELECT p FROM Product p WHERE (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> searchProductsAfter(@Param("query") String query, @Param("createdAt") Date createdAt,
+                                      @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(Product.SUMMARY_GRAPH)
+    @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND " +
+            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> searchProductsByStoreAfter(@Param("storeId") UUID storeId, @Param("query") String query,
+                                             @Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Listing projection: one row per product with stock and a single card-sized image, no entity graph loaded.
+    // The image is the first upload, the same one the detail view lists first (Product.productImages @OrderBy)
+    @Query("SELECT new com.sokoby.payload.ProductSummaryDto(p.id, p.store.id, p.title, p.price, p.comparedPrice, p.status, " +
+            "CAST(CASE WHEN i.slotCount > 0 THEN (SELECT COALESCE(SUM(s.stockQuantity), 0) FROM InventorySlot s WHERE s.skuId = i.sku.id) " +
+            "ELSE i.stockQuantity END AS Integer), (SELECT COALESCE(img.cardUrl, img.imageUrl) FROM ProductImage img WHERE img.product = p ORDER BY img.createdAt, img.id LIMIT 1), p.createdAt) " +
+            "FROM Product p LEFT JOIN p.inventory i " +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummaryDto> findSummariesAfter(@Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT new com.sokoby.payload.ProductSummaryDto(p.id, p.store.id, p.title, p.price, p.comparedPrice, p.status, " +
+            "CAST(CASE WHEN i.slotCount > 0 THEN (SELECT COALESCE(SUM(s.stockQuantity), 0) FROM InventorySlot s WHERE s.skuId = i.sku.id) " +
+            "ELSE i.stockQuantity END AS Integer), (SELECT COALESCE(img.cardUrl, img.imageUrl) FROM ProductImage img WHERE img.product = p ORDER BY img.createdAt, img.id LIMIT 1), p.createdAt) " +
+            "FROM Product p LEFT JOIN p.inventory i " +
+            "WHERE p.store.id = :storeId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummaryDto> findSummariesByStoreIdAfter(@Param("storeId") UUID storeId, @Param("createdAt") Date createdAt,
+                                                        @Param("id") UUID id, Pageable pageable);
+
+    // Collections for a whole page of products in one round-trip
+    @Query("SELECT p.id, c FROM Product p JOIN p.collections c WHERE p.id IN :ids")
+    List<Object[]> findCollectionsByProductIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Ranked full-text search over the generated search_vector column (see FullTextSearchInitializer)
+    @Query(value = "SELECT p.* FROM products p WHERE p.search_vector @@ to_tsquery('english', :tsQuery) " +
+            "ORDER BY ts_rank(p.search_vector, to_tsquery('english', :tsQuery)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p WHERE p.search_vector @@ to_tsquery('english', :tsQuery)",
+            nativeQuery = true)
+    Page<Product> fullTextSearchProducts(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM products p WHERE p.store_id = :storeId AND p.search_vector @@ to_tsquery('english', :tsQuery) " +
+            "ORDER BY ts_rank(p.search_vector, to_tsquery('english', :tsQuery)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p WHERE p.store_id = :storeId AND p.search_vector @@ to_tsquery('english', :tsQuery)",
+            nativeQuery = true)
+    Page<Product> fullTextSearchProductsByStore(@Param("storeId") UUID storeId, @Param("tsQuery") String tsQuery, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.sku s LEFT JOIN FETCH s.inventory WHERE p.id IN :ids")
+    List<Product> findAllWithInventoryByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Flat projections used to build the in-memory autocomplete index without loading entity graphs
+    @Query("SELECT p.id, p.store.id, p.title, p.description FROM Product p")
+    List<Object[]> findSearchDocuments();
+
+    @Query("SELECT p.id, c.type FROM Product p JOIN p.collections c")
+    List<Object[]> findCollectionTypesForSearch();
+
+    List<Product> findTop4ByStoreIdOrderByPriceDesc(UUID storeId);
+
+    // Product price totals per collection type; products without a collection come back with a null type
+    @Query("SELECT c.type, SUM(p.price) FROM Product p LEFT JOIN p.collections c WHERE p.store.id = :storeId GROUP BY c.type")
+    List<Object[]> sumPriceByCollectionType(@Param("storeId") UUID storeId);
+
     @Query("SELECT p FROM Product p JOIN p.collections c WHERE c.type = :collectionType")
     List<Product> findAllByCollectionType(@Param("collectionType") CollectionType collectionType);
 
@@ -0,0 +1,39 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    // Locks an order's holds so conversion and release cannot interleave with the sweeper
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId ORDER BY r.skuId")
+    List<StockReservation> findByOrderIdForUpdate(@Param("orderId") UUID orderId);
+
+    // Oldest expired holds first; SKIP LOCKED lets several nodes sweep without blocking each other
+    // or an order that is converting its holds right now
+    @Query(value = "SELECT * FROM stock_reservations WHERE status = 'HELD' AND expires_at <= :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StockReservation> lockExpired(@Param("now") Date now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = com.sokoby.enums.StockReservationStatus.RELEASED, " +
+            "r.resolvedAt = :now WHERE r.id IN :ids AND r.status = com.sokoby.enums.StockReservationStatus.HELD")
+    int markReleased(@Param("ids") Collection<UUID> ids, @Param("now") Date now);
+
+    // Holds an order gave back before its lines were re-held; convert() must not take them again
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.orderId = :orderId " +
+            "AND r.status = com.sokoby.enums.StockReservationStatus.RELEASED")
+    int deleteReleasedByOrderId(@Param("orderId") UUID orderId);
+}
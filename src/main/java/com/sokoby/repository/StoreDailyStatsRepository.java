@@ -0,0 +1,57 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.StoreDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface StoreDailyStatsRepository extends JpaRepository<StoreDailyStats, UUID> {
+
+    List<StoreDailyStats> findByStoreIdOrderByStatDateAsc(UUID storeId);
+
+    List<StoreDailyStats> findByStoreIdAndStatDateBetweenOrderByStatDateAsc(UUID storeId, LocalDate from, LocalDate to);
+
+    // Single-statement increment so concurrent checkouts never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO store_daily_stats (id, store_id, stat_date, order_count, order_amount, sales_order_count, sales_amount, new_customer_count) " +
+            "VALUES (gen_random_uuid(), :storeId, :statDate, :orderCount, :orderAmount, :salesOrderCount, :salesAmount, :newCustomerCount) " +
+            "ON CONFLICT (store_id, stat_date) DO UPDATE SET " +
+            "order_count = store_daily_stats.order_count + EXCLUDED.order_count, " +
+            "order_amount = store_daily_stats.order_amount + EXCLUDED.order_amount, " +
+            "sales_order_count = store_daily_stats.sales_order_count + EXCLUDED.sales_order_count, " +
+            "sales_amount = store_daily_stats.sales_amount + EXCLUDED.sales_amount, " +
+            "new_customer_count = store_daily_stats.new_customer_count + EXCLUDED.new_customer_count",
+            nativeQuery = true)
+    void increment(@Param("storeId") UUID storeId, @Param("statDate") LocalDate statDate,
+                   @Param("orderCount") long orderCount, @Param("orderAmount") double orderAmount,
+                   @Param("salesOrderCount") long salesOrderCount, @Param("salesAmount") double salesAmount,
+                   @Param("newCustomerCount") long newCustomerCount);
+
+    @Modifying
+    @Query("DELETE FROM StoreDailyStats s WHERE s.store.id = :storeId")
+    void deleteByStoreId(@Param("storeId") UUID storeId);
+
+    // Upserts: a checkout can create a day's row between the rebuild's delete and this insert, and the
+    // recomputed totals win over that row instead of failing the rebuild on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO store_daily_stats (id, store_id, stat_date, order_count, order_amount, sales_order_count, sales_amount, new_customer_count) " +
+            "SELECT gen_random_uuid(), t.store_id, t.stat_date, SUM(t.order_count), SUM(t.order_amount), SUM(t.sales_order_count), SUM(t.sales_amount), SUM(t.new_customer_count) FROM (" +
+            "SELECT o.store_id, CAST(o.created_at AS date) AS stat_date, 1 AS order_count, COALESCE(o.total_amount, 0) AS order_amount, " +
+            "CASE WHEN o.status IN ('CONFIRMED', 'DELIVERED') THEN 1 ELSE 0 END AS sales_order_count, " +
+            "CASE WHEN o.status IN ('CONFIRMED', 'DELIVERED') THEN COALESCE(o.total_amount, 0) ELSE 0 END AS sales_amount, " +
+            "0 AS new_customer_count FROM orders o WHERE o.store_id = :storeId " +
+            "UNION ALL " +
+            "SELECT c.store_id, CAST(c.created_at AS date), 0, 0, 0, 0, 1 FROM customers c WHERE c.store_id = :storeId" +
+            ") t GROUP BY t.store_id, t.stat_date " +
+            "ON CONFLICT (store_id, stat_date) DO UPDATE SET " +
+            "order_count = EXCLUDED.order_count, order_amount = EXCLUDED.order_amount, " +
+            "sales_order_count = EXCLUDED.sales_order_count, sales_amount = EXCLUDED.sales_amount, " +
+            "new_customer_count = EXCLUDED.new_customer_count",
+            nativeQuery = true)
+    void rebuildForStore(@Param("storeId") UUID storeId);
+}
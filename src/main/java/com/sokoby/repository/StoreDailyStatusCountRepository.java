@@ -0,0 +1,40 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.StoreDailyStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface StoreDailyStatusCountRepository extends JpaRepository<StoreDailyStatusCount, UUID> {
+
+    List<StoreDailyStatusCount> findByStoreId(UUID storeId);
+
+    List<StoreDailyStatusCount> findByStoreIdAndStatDateBetween(UUID storeId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO store_daily_status_counts (id, store_id, stat_date, status, order_count) " +
+            "VALUES (gen_random_uuid(), :storeId, :statDate, :status, :delta) " +
+            "ON CONFLICT (store_id, stat_date, status) DO UPDATE SET " +
+            "order_count = store_daily_status_counts.order_count + EXCLUDED.order_count",
+            nativeQuery = true)
+    void increment(@Param("storeId") UUID storeId, @Param("statDate") LocalDate statDate,
+                   @Param("status") String status, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM StoreDailyStatusCount s WHERE s.store.id = :storeId")
+    void deleteByStoreId(@Param("storeId") UUID storeId);
+
+    // Upserts for the same reason as StoreDailyStatsRepository.rebuildForStore
+    @Modifying
+    @Query(value = "INSERT INTO store_daily_status_counts (id, store_id, stat_date, status, order_count) " +
+            "SELECT gen_random_uuid(), o.store_id, CAST(o.created_at AS date), o.status, COUNT(*) " +
+            "FROM orders o WHERE o.store_id = :storeId GROUP BY o.store_id, CAST(o.created_at AS date), o.status " +
+            "ON CONFLICT (store_id, stat_date, status) DO UPDATE SET order_count = EXCLUDED.order_count",
+            nativeQuery = true)
+    void rebuildForStore(@Param("storeId") UUID storeId);
+}
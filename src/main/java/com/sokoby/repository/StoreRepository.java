@@ -13,7 +13,15 @@ import java.util.UUID;
 public interface StoreRepository extends JpaRepository<Store, UUID> {
     Optional<Store> findByMerchantId(UUID merchantId);
 
+    boolean existsByIdAndMerchantId(UUID id, UUID merchantId);
+
     @Query("SELECT s FROM Store s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(s.domain) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<Store> searchStores(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT s.* FROM stores s WHERE s.search_vector @@ to_tsquery('simple', :tsQuery) " +
+            "ORDER BY ts_rank(s.search_vector, to_tsquery('simple', :tsQuery)) DESC, s.id",
+            countQuery = "SELECT COUNT(*) FROM stores s WHERE s.search_vector @@ to_tsquery('simple', :tsQuery)",
+            nativeQuery = true)
+    Page<Store> fullTextSearchStores(@Param("tsQuery") String tsQuery, Pageable pageable);
 }
\ No newline at end of file
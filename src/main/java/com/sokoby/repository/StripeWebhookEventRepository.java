@@ -0,0 +1,73 @@
+package com.sokoby.repository;
+
+import com.sokoby.entity.StripeWebhookEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // Returns 0 when the event id is already in the inbox, which makes redeliveries a no-op
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stripe_webhook_events (id, type, ordering_key, event_created, payload, status, attempts, next_attempt_at, received_at) " +
+            "VALUES (:id, :type, :orderingKey, :eventCreated, :payload, 'PENDING', 0, now(), now()) " +
+            "ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("type") String type, @Param("orderingKey") String orderingKey,
+                       @Param("eventCreated") long eventCreated, @Param("payload") String payload);
+
+    // Due events that are the oldest unfinished event for their ordering key
+    @Query("SELECT e.id FROM StripeWebhookEvent e WHERE e.status = com.sokoby.enums.WebhookEventStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now AND NOT EXISTS (SELECT 1 FROM StripeWebhookEvent o " +
+            "WHERE o.orderingKey = e.orderingKey AND o.id <> e.id " +
+            "AND o.status IN (com.sokoby.enums.WebhookEventStatus.PENDING, com.sokoby.enums.WebhookEventStatus.PROCESSING) " +
+            "AND (o.eventCreated < e.eventCreated OR (o.eventCreated = e.eventCreated AND o.receivedAt < e.receivedAt))) " +
+            "ORDER BY e.eventCreated ASC, e.receivedAt ASC")
+    List<String> findDueIds(@Param("now") Date now, Pageable pageable);
+
+    // Conditional claim: only one worker (or node) moves a given event to PROCESSING
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.PROCESSING, " +
+            "e.attempts = e.attempts + 1, e.nextAttemptAt = :now " +
+            "WHERE e.id = :id AND e.status = com.sokoby.enums.WebhookEventStatus.PENDING")
+    int claim(@Param("id") String id, @Param("now") Date now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.PENDING, " +
+            "e.attempts = e.attempts - 1 WHERE e.id = :id AND e.status = com.sokoby.enums.WebhookEventStatus.PROCESSING")
+    int unclaim(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.PROCESSED, " +
+            "e.processedAt = :now, e.lastError = null WHERE e.id = :id")
+    int markProcessed(@Param("id") String id, @Param("now") Date now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.PENDING, " +
+            "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(@Param("id") String id, @Param("nextAttemptAt") Date nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.FAILED, " +
+            "e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") String id, @Param("error") String error);
+
+    // Releases events left in PROCESSING (claimed before staleBefore) by a node that died mid-handler
+    @Modifying
+    @Transactional
+    @Query("UPDATE StripeWebhookEvent e SET e.status = com.sokoby.enums.WebhookEventStatus.PENDING, e.nextAttemptAt = :now " +
+            "WHERE e.status = com.sokoby.enums.WebhookEventStatus.PROCESSING AND e.nextAttemptAt < :staleBefore")
+    int releaseStale(@Param("staleBefore") Date staleBefore, @Param("now") Date now);
+}
@@ -7,16 +7,32 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
 public interface VariantRepository extends JpaRepository<Variant, UUID> {
   List<Variant> findByProductId(UUID productId);
 
+  @Query("SELECT v.product.id, v.name FROM Variant v")
+  List<Object[]> findVariantNamesForSearch();
+
+  @Query("SELECT v FROM Variant v JOIN FETCH v.sku s LEFT JOIN FETCH s.inventory WHERE v.id IN :ids")
+  List<Variant> findAllWithInventoryByIdIn(@Param("ids") Collection<UUID> ids);
+
   @Query("SELECT v FROM Variant v  WHERE LOWER(v.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
           "OR v.sku.skuCode LIKE LOWER(CONCAT('%', :query, '%'))")
   Page<Variant> searchVariants(@Param("query") String query, Pageable pageable);
 
+  // Keyset page ordered newest first; see PageCursor
+  @Query("SELECT v FROM Variant v WHERE (LOWER(v.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+          "OR v.sku.skuCode LIKE LOWER(CONCAT('%', :query, '%'))) " +
+          "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id)) " +
+          "ORDER BY v.createdAt DESC, v.id DESC")
+  List<Variant> searchVariantsAfter(@Param("query") String query, @Param("createdAt") Date createdAt,
+                                    @Param("id") UUID id, Pageable pageable);
+
 //  @Query("SELECT v FROM Variant v WHERE v.product.id = :productId AND " +
 //          "(LOWER(v.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
 //          "OR v.sku LIKE LOWER(CONCAT('%', :query, '%')))")
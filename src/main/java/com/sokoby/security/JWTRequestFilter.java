@@ -1,5 +1,6 @@
 package com.sokoby.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.sokoby.entity.Customer;
 import com.sokoby.entity.Merchant;
 import com.sokoby.exception.MerchantException;
@@ -19,20 +20,26 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Component
 public class JWTRequestFilter extends OncePerRequestFilter {
+    private static final String MERCHANT_ROLE = "ROLE_MERCHANT";
+    private static final String CUSTOMER_ROLE = "ROLE_CUSTOMER";
+
     private final JWTService jwtService;
     private final MerchantRepository merchantRepository;
     private final CustomerRepository customerRepository;
+    private final PrincipalCache principalCache;
 
     public JWTRequestFilter(JWTService jwtService, MerchantRepository merchantRepository,
-                            CustomerRepository customerRepository) {
+                            CustomerRepository customerRepository, PrincipalCache principalCache) {
         this.jwtService = jwtService;
         this.merchantRepository = merchantRepository;
         this.customerRepository = customerRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -43,7 +50,6 @@ public class JWTRequestFilter extends OncePerRequestFilter {
 
         if (accessTokenHeader != null && accessTokenHeader.startsWith("Bearer ")) {
             String accessToken = accessTokenHeader.substring(7);
-            System.out.println("Access token header from client : " + accessToken);
             processAccessToken(accessToken, request, response);
         }
 
@@ -51,38 +57,47 @@ public class JWTRequestFilter extends OncePerRequestFilter {
     }
 
     private void processAccessToken(String accessToken, HttpServletRequest request, HttpServletResponse response) {
-        if (jwtService.isTokenValid(accessToken)) {
-            authenticateUser(accessToken, request);
-        }
+        jwtService.verify(accessToken).ifPresent(jwt -> authenticateUser(jwt, request));
     }
 
-    private void authenticateUser(String token, HttpServletRequest request) {
-        String email = jwtService.getUserEmail(token);
+    private void authenticateUser(DecodedJWT jwt, HttpServletRequest request) {
+        String email = jwtService.getUserEmail(jwt);
+        String role = jwtService.getUserRole(jwt);
         try{
-            Optional<Merchant> userOptional = merchantRepository.findByEmail(email);
-            if (userOptional.isPresent()) {
-                Merchant user = userOptional.get();
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                authorities.add(new SimpleGrantedAuthority(user.getRole())); // Ensure "ROLE_MERCHANT"
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        user, null, authorities);
-                authentication.setDetails(new WebAuthenticationDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
-            else {
-                Optional<Customer> customerOptional = customerRepository.findByEmail(email);
-                if (customerOptional.isPresent()) {
-                    Customer user = customerOptional.get();
-                    List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                    authorities.add(new SimpleGrantedAuthority(user.getRole())); // Ensure "ROLE_CUSTOMER"
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            user, null, authorities);
-                    authentication.setDetails(new WebAuthenticationDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            PrincipalCache.CachedPrincipal cached = principalCache.get(email, role);
+            if (cached == null) {
+                cached = loadPrincipal(email, role, jwt.getExpiresAt());
+                if (cached == null) {
+                    return;
                 }
+                principalCache.put(email, role, cached);
             }
+            List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(new SimpleGrantedAuthority(cached.role())); // "ROLE_MERCHANT" or "ROLE_CUSTOMER"
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    cached.principal(), null, authorities);
+            authentication.setDetails(new WebAuthenticationDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
            throw new MerchantException("User Not Found", "USER_NOT_FOUND");
         }
     }
-}
\ No newline at end of file
+
+    // The role claim picks the table to look in; tokens issued before it existed check merchants first
+    private PrincipalCache.CachedPrincipal loadPrincipal(String email, String role, Date expiresAt) {
+        long expiresAtMillis = expiresAt != null ? expiresAt.getTime() : System.currentTimeMillis();
+        if (role == null || MERCHANT_ROLE.equals(role)) {
+            Optional<Merchant> merchant = merchantRepository.findByEmail(email);
+            if (merchant.isPresent()) {
+                return new PrincipalCache.CachedPrincipal(merchant.get(), merchant.get().getRole(), expiresAtMillis);
+            }
+        }
+        if (role == null || CUSTOMER_ROLE.equals(role)) {
+            Optional<Customer> customer = customerRepository.findByEmail(email);
+            if (customer.isPresent()) {
+                return new PrincipalCache.CachedPrincipal(customer.get(), customer.get().getRole(), expiresAtMillis);
+            }
+        }
+        return null;
+    }
+}
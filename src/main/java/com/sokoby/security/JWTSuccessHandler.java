@@ -51,7 +51,7 @@ public class JWTSuccessHandler implements AuthenticationSuccessHandler {
                 merchant = merchantService.loadMerchantByEmail(email); // Ensure we get the persisted entity
 
             }
-            String token = jwtService.generateToken(merchant.getEmail());
+            String token = jwtService.generateToken(merchant.getEmail(), merchant.getRole());
             String redirectUrl = clientUrl + "/auth/callback?token=" + token;
             response.sendRedirect(redirectUrl);
         } catch (IOException e) {
@@ -0,0 +1,82 @@
+package com.sokoby.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Authenticated principals keyed by role and token subject. Entries never outlive the token that
+// loaded them and are dropped whenever the underlying merchant or customer changes.
+@Component
+public class PrincipalCache {
+    @Value("${app.security.principal-cache.ttl:5m}")
+    private Duration ttl;
+    @Value("${app.security.principal-cache.max-entries:10000}")
+    private long maxEntries;
+
+    private Cache<String, CachedPrincipal> cache;
+
+    public record CachedPrincipal(Object principal, String role, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    private void initializeCache() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                        long untilTokenExpiry = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(ttl.toNanos(), untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public CachedPrincipal get(String email, String role) {
+        return cache.getIfPresent(key(email, role));
+    }
+
+    public void put(String email, String role, CachedPrincipal principal) {
+        cache.put(key(email, role), principal);
+    }
+
+    // Runs after commit so a concurrent request cannot re-cache the pre-update state
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        String suffix = ":" + email;
+        Runnable action = () -> cache.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(String email, String role) {
+        return (role != null ? role : "ANY") + ":" + email;
+    }
+}
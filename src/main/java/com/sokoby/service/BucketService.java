@@ -1,35 +1,81 @@
 package com.sokoby.service;
 
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 public class BucketService {
+    // S3 rejects multipart parts below 5 MB (except the last one)
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
     @Autowired
     private AmazonS3 amazonS3;
+    @Value("${aws.s3.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+    @Value("${aws.s3.multipart-part-size:8MB}")
+    private DataSize partSize;
+
+    /**
+     * Streams the upload straight from the request to S3 under a unique key and returns its URL.
+     * Nothing is staged on local disk, and two uploads with the same original filename get
+     * different keys.
+     */
     public String uploadFile(MultipartFile file, String bucketName){
         if(file.isEmpty()){
             throw new IllegalStateException("Cannot upload empty file");
         }
-        try{
-            File conFile = new File(System.getProperty("java.io.tmpdir") + "/"+ file.getOriginalFilename());
-            file.transferTo(conFile);
-            try{
-                amazonS3.putObject(bucketName,conFile.getName(), conFile);
-                return amazonS3.getUrl(bucketName, file.getOriginalFilename()).toString();
-            }
-            catch(AmazonS3Exception s3Exception){
-                return "Unable to upload File :" + s3Exception.getMessage();
-            }
+        String key = newKey(file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadStream(inputStream, file.getSize(), file.getContentType(), key, bucketName);
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalStateException("Failed to upload the file",e);
         }
     }
+
+    /**
+     * Uploads {@code length} bytes from the stream under {@code key}. Objects above the multipart
+     * threshold go up in parts so the SDK never buffers the whole stream; a failed multipart upload
+     * is aborted so no orphaned parts are billed.
+     */
+    public String uploadStream(InputStream inputStream, long length, String contentType, String key, String bucketName) {
+        if (length > multipartThreshold.toBytes()) {
+            uploadMultipart(inputStream, length, contentType, key, bucketName);
+        } else {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(length);
+            metadata.setContentType(contentType);
+            amazonS3.putObject(new PutObjectRequest(bucketName, key, inputStream, metadata));
+        }
+        return amazonS3.getUrl(bucketName, key).toString();
+    }
+
+    // Unique, URL-safe object key that keeps the original name readable
+    public String newKey(String originalFilename) {
+        String name = originalFilename == null ? "" : originalFilename;
+        // Some browsers send the full client path
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return name.isEmpty() ? UUID.randomUUID().toString() : UUID.randomUUID() + "_" + name;
+    }
+
     public boolean deleteFile(String fileName, String bucketName) {
         try {
             amazonS3.deleteObject(bucketName, fileName);
@@ -39,4 +85,32 @@ public class BucketService {
             return false; // Deletion failed
         }
     }
+
+    private void uploadMultipart(InputStream inputStream, long length, String contentType, String key, String bucketName) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        String uploadId = amazonS3.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, key, metadata)).getUploadId();
+        try {
+            long size = Math.max(partSize.toBytes(), MIN_PART_SIZE);
+            List<PartETag> parts = new ArrayList<>();
+            long offset = 0;
+            for (int partNumber = 1; offset < length; partNumber++) {
+                long currentSize = Math.min(size, length - offset);
+                parts.add(amazonS3.uploadPart(new UploadPartRequest()
+                        .withBucketName(bucketName)
+                        .withKey(key)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withInputStream(inputStream)
+                        .withPartSize(currentSize)
+                        .withLastPart(offset + currentSize >= length)).getPartETag());
+                offset += currentSize;
+            }
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, parts));
+        } catch (RuntimeException e) {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,312 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.CheckoutSessionRequest;
+import com.sokoby.entity.Order;
+import com.sokoby.entity.Payment;
+import com.sokoby.enums.CheckoutSessionStatus;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.payload.CheckoutSessionDto;
+import com.sokoby.repository.CheckoutSessionRequestRepository;
+import com.sokoby.repository.OrderRepository;
+import com.sokoby.repository.PaymentRepository;
+import com.sokoby.util.ThreadFactories;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates Stripe Checkout Sessions outside any database transaction. Orders write a
+ * {@link CheckoutSessionRequest} outbox row in their own transaction; after commit a worker reads
+ * what it needs in a short read-only transaction, calls Stripe with no connection held, and stores
+ * the result in a second short transaction. A periodic sweep resubmits rows whose submission was
+ * lost (rejected, node restart) and retries failed calls with backoff.
+ */
+@Service
+public class CheckoutSessionService {
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutSessionService.class);
+
+    private final CheckoutSessionRequestRepository requestRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Value("${app.success.url}")
+    private String successUrl;
+    @Value("${app.cancel.url}")
+    private String cancelUrl;
+    @Value("${app.checkout.workers:8}")
+    private int workers;
+    @Value("${app.checkout.queue-capacity:500}")
+    private int queueCapacity;
+    @Value("${app.checkout.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${app.checkout.retry-backoff:2s}")
+    private Duration retryBackoff;
+    @Value("${app.checkout.sweep-interval:5s}")
+    private Duration sweepInterval;
+    @Value("${app.checkout.creating-timeout:2m}")
+    private Duration creatingTimeout;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService sweeper;
+    private final Map<UUID, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public CheckoutSessionService(CheckoutSessionRequestRepository requestRepository, OrderRepository orderRepository,
+                                  PaymentRepository paymentRepository, PlatformTransactionManager transactionManager) {
+        this.requestRepository = requestRepository;
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    private void start() {
+        // Pool size bounds concurrent Stripe calls in both modes; virtual threads just make each wait cheap
+        executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                ThreadFactories.named("checkout-session-", virtualThreads));
+        sweeper = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("checkout-session-sweeper-", false));
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void stop() {
+        sweeper.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * Writes the outbox row in the caller's transaction and starts session creation once it commits.
+     */
+    public void enqueue(UUID orderId) {
+        CheckoutSessionRequest request = new CheckoutSessionRequest();
+        request.setOrderId(orderId);
+        requestRepository.save(request);
+        afterCommit(() -> submit(orderId));
+    }
+
+    /**
+     * Returns the checkout URL, or null when the session is not ready yet (including while a failed
+     * attempt waits for its retry) so the caller can poll {@link #getStatus(UUID)}; only a request
+     * that used up its attempts fails. Only an in-flight creation on this node is waited for (up to
+     * {@code timeout}), and that wait happens before any query: with open-in-view the request keeps
+     * its JDBC connection once it has touched the database.
+     */
+    public String awaitSessionUrl(UUID orderId, Duration timeout) {
+        CompletableFuture<String> pending = inFlight.get(orderId);
+        if (pending != null) {
+            String url = await(pending, timeout);
+            if (url != null) {
+                return url;
+            }
+        }
+
+        CheckoutSessionRequest request = requestRepository.findByOrderId(orderId).orElse(null);
+        if (request == null) {
+            // Orders placed before the outbox existed
+            if (!orderRepository.existsById(orderId)) {
+                throw new MerchantException("Order not found", "ORDER_NOT_FOUND");
+            }
+            transactionTemplate.executeWithoutResult(status -> enqueue(orderId));
+            return null;
+        }
+        switch (request.getStatus()) {
+            case READY:
+                return request.getSessionUrl();
+            case FAILED:
+                throw new MerchantException("Payment processing failed: " + request.getLastError(), "PAYMENT_PROCESSING_ERROR");
+            case REQUESTED:
+                // A failed attempt waits out its backoff; the sweeper resubmits it once it is due
+                if (!request.getNextAttemptAt().after(new Date())) {
+                    submit(orderId);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private String await(CompletableFuture<String> future, Duration timeout) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // The failure is already recorded on the row: retryable ones are rescheduled, so only FAILED is final
+            return null;
+        }
+    }
+
+    public CheckoutSessionDto getStatus(UUID orderId) {
+        CheckoutSessionRequest request = requestRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new MerchantException("Checkout session not requested for order", "CHECKOUT_NOT_FOUND"));
+        CheckoutSessionDto dto = new CheckoutSessionDto();
+        dto.setOrderId(orderId);
+        dto.setStatus(request.getStatus().name());
+        dto.setUrl(request.getSessionUrl());
+        dto.setErrorMessage(request.getLastError());
+        return dto;
+    }
+
+    // Completes with the URL, or with null when another worker or node owns the request
+    private CompletableFuture<String> submit(UUID orderId) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(orderId, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(createSession(orderId));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(orderId, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Saturated: the sweeper will pick the request up
+            inFlight.remove(orderId, future);
+            future.complete(null);
+        }
+        return future;
+    }
+
+    private String createSession(UUID orderId) throws StripeException {
+        if (requestRepository.claim(orderId, new Date()) == 0) {
+            return requestRepository.findByOrderId(orderId)
+                    .filter(request -> request.getStatus() == CheckoutSessionStatus.READY)
+                    .map(CheckoutSessionRequest::getSessionUrl)
+                    .orElse(null);
+        }
+
+        Session session;
+        try {
+            SessionCreateParams params = readOnlyTransactionTemplate.execute(status -> buildParams(orderId));
+            // Same key on every retry so Stripe never creates two sessions for one order
+            session = Session.create(params, RequestOptions.builder()
+                    .setIdempotencyKey("checkout-session-" + orderId)
+                    .build());
+        } catch (StripeException | RuntimeException e) {
+            recordFailure(orderId, e);
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Payment payment = paymentRepository.findByOrderId(orderId)
+                    .orElseThrow(() -> new MerchantException("Order Not Found", "ORDER_NOT_FOUND"));
+            payment.setStripePaymentIntentId(session.getPaymentIntent());
+            payment.setStripeCheckoutSessionId(session.getId());
+            requestRepository.markReady(orderId, session.getId(), session.getUrl(), new Date());
+        });
+        logger.info("Checkout session created for order {}: {}", orderId, session.getUrl());
+        return session.getUrl();
+    }
+
+    private SessionCreateParams buildParams(UUID orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new MerchantException("Order not found", "ORDER_NOT_FOUND"));
+        return SessionCreateParams.builder()
+                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(successUrl + order.getStore().getId() + "/order-success" + "?orderId=" + order.getId())
+                .setCancelUrl(cancelUrl + "?orderId=" + order.getId())
+                .addLineItem(
+                        SessionCreateParams.LineItem.builder()
+                                .setPriceData(
+                                        SessionCreateParams.LineItem.PriceData.builder()
+                                                .setCurrency("usd")
+                                                .setUnitAmount((long) (order.getTotalAmount() * 100))
+                                                .setProductData(
+                                                        SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                                                                .setName("Order #" + order.getId())
+                                                                .build()
+                                                )
+                                                .build()
+                                )
+                                .setQuantity(1L)
+                                .build()
+                )
+                .build();
+    }
+
+    private void recordFailure(UUID orderId, Exception e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        if (error.length() > 2000) {
+            error = error.substring(0, 2000);
+        }
+        int attempts = requestRepository.findByOrderId(orderId).map(CheckoutSessionRequest::getAttempts).orElse(maxAttempts);
+        if (attempts >= maxAttempts) {
+            requestRepository.markFailed(orderId, error);
+            logger.error("Checkout session for order {} failed after {} attempts: {}", orderId, attempts, error);
+        } else {
+            long delay = retryBackoff.toMillis() << Math.min(attempts - 1, 10);
+            requestRepository.scheduleRetry(orderId, new Date(System.currentTimeMillis() + delay), error);
+            logger.warn("Checkout session for order {} failed on attempt {}, retrying in {} ms: {}", orderId, attempts, delay, error);
+        }
+    }
+
+    private void sweep() {
+        try {
+            Date now = new Date();
+            requestRepository.releaseStale(new Date(now.getTime() - creatingTimeout.toMillis()));
+            int capacity = Math.max(0, executor.getQueue().remainingCapacity());
+            if (capacity == 0) {
+                return;
+            }
+            for (UUID orderId : requestRepository.findDueOrderIds(now, PageRequest.of(0, capacity))) {
+                submit(orderId);
+            }
+        } catch (Exception e) {
+            logger.error("Checkout session sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
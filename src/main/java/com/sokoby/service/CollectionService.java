@@ -1,6 +1,7 @@
 package com.sokoby.service;
 
 import com.sokoby.payload.CollectionDto;
+import com.sokoby.payload.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -16,6 +17,8 @@ public interface CollectionService {
 
     Page<CollectionDto> getCategoriesByStoreId(UUID storeId, Pageable pageable);
 
+    CursorPage<CollectionDto> getCategoriesByStoreIdAfter(UUID storeId, String cursor, int size);
+
     CollectionDto updateCategory(UUID id, CollectionDto dto);
 
     void deleteCategory(UUID id);
@@ -3,6 +3,7 @@ package com.sokoby.service;
 import com.sokoby.payload.CustomerDto;
 import com.sokoby.payload.JWTTokenDto;
 import com.sokoby.payload.LoginDto;
+import com.sokoby.payload.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -20,6 +21,8 @@ public interface CustomerService {
 
     Page<CustomerDto> searchCustomersByStore(UUID storeId, String query, Pageable pageable);
 
+    CursorPage<CustomerDto> searchCustomersByStoreAfter(UUID storeId, String query, String cursor, int size);
+
     CustomerDto updateCustomer(UUID id, CustomerDto dto);
 
     void deleteCustomer(UUID id);
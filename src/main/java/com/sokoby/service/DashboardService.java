@@ -1,10 +1,10 @@
 package com.sokoby.service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -15,10 +15,14 @@ import org.springframework.stereotype.Service;
 import com.sokoby.entity.Customer;
 import com.sokoby.entity.Order;
 import com.sokoby.entity.Product;
+import com.sokoby.entity.StoreDailyStats;
+import com.sokoby.entity.StoreDailyStatusCount;
 import com.sokoby.enums.OrderStatus;
 import com.sokoby.repository.CustomerRepository;
 import com.sokoby.repository.OrderRepository;
 import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.StoreDailyStatsRepository;
+import com.sokoby.repository.StoreDailyStatusCountRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,53 +35,61 @@ public class DashboardService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final CustomerRepository customerRepository;
+    private final StoreDailyStatsRepository storeDailyStatsRepository;
+    private final StoreDailyStatusCountRepository storeDailyStatusCountRepository;
 
     public Map<String, Object> getDashboardStats(String storeId) {
-        log.info("Getting dashboard stats for store: {}", storeId);
+        return getDashboardStats(storeId, null, null);
+    }
+
+    public Map<String, Object> getDashboardStats(String storeId, LocalDate from, LocalDate to) {
+        log.info("Getting dashboard stats for store: {} (from {} to {})", storeId, from, to);
         
         try {
             UUID storeUuid = UUID.fromString(storeId);
             log.info("Converted storeId to UUID: {}", storeUuid);
-            
-            List<Order> orders = orderRepository.findByStoreId(storeUuid);
-            log.info("Found {} orders for store", orders.size());
-            
-            List<Product> products = productRepository.findByStoreId(storeUuid);
-            log.info("Found {} products for store", products.size());
-            
-            List<Customer> customers = customerRepository.findByStoreId(storeUuid);
-            log.info("Found {} customers for store", customers.size());
-
-            // Calculate total sales
-            double totalSales = orders.stream()
-                    .filter(order -> order.getStatus().equals(OrderStatus.CONFIRMED) || order.getStatus().equals(OrderStatus.DELIVERED))
-                    .mapToDouble(order -> order.getTotalAmount() != null ? order.getTotalAmount() : 0.0)
-                    .sum();
+
+            // Rollup rows are one per active day, so reads scale with the range and not with order volume
+            List<StoreDailyStats> dailyStats;
+            List<StoreDailyStatusCount> statusCounts;
+            if (from == null && to == null) {
+                dailyStats = storeDailyStatsRepository.findByStoreIdOrderByStatDateAsc(storeUuid);
+                statusCounts = storeDailyStatusCountRepository.findByStoreId(storeUuid);
+            } else {
+                LocalDate rangeStart = from != null ? from : LocalDate.of(1970, 1, 1);
+                LocalDate rangeEnd = to != null ? to : LocalDate.now();
+                dailyStats = storeDailyStatsRepository.findByStoreIdAndStatDateBetweenOrderByStatDateAsc(storeUuid, rangeStart, rangeEnd);
+                statusCounts = storeDailyStatusCountRepository.findByStoreIdAndStatDateBetween(storeUuid, rangeStart, rangeEnd);
+            }
+            log.info("Found {} daily rollup rows for store", dailyStats.size());
+
+            // Calculate total sales - only confirmed/delivered orders
+            double totalSales = dailyStats.stream().mapToDouble(StoreDailyStats::getSalesAmount).sum();
             log.info("Total sales: {}", totalSales);
 
             // Calculate total orders - include all orders regardless of status
-            int totalOrders = orders.size();
+            long totalOrders = dailyStats.stream().mapToLong(StoreDailyStats::getOrderCount).sum();
             log.info("Total orders: {}", totalOrders);
 
             // Calculate total customers
-            int totalCustomers = customers.size();
+            long totalCustomers = dailyStats.stream().mapToLong(StoreDailyStats::getNewCustomerCount).sum();
             log.info("Total customers: {}", totalCustomers);
 
             // Calculate average order value - only for confirmed/delivered orders
-            long confirmedOrdersCount = orders.stream()
-                    .filter(order -> order.getStatus().equals(OrderStatus.CONFIRMED) || order.getStatus().equals(OrderStatus.DELIVERED))
-                    .count();
+            long confirmedOrdersCount = dailyStats.stream().mapToLong(StoreDailyStats::getSalesOrderCount).sum();
             double averageOrderValue = confirmedOrdersCount > 0 
                     ? totalSales / confirmedOrdersCount
                     : 0.0;
             log.info("Average order value: {}", averageOrderValue);
 
             // Group orders by month
-            List<Map<String, Object>> salesByMonth = groupOrdersByMonth(orders);
+            List<Map<String, Object>> salesByMonth = groupStatsByMonth(dailyStats);
             log.info("Sales by month data points: {}", salesByMonth.size());
 
+            Map<String, Long> ordersByStatus = groupStatusCounts(statusCounts);
+
             // Group products by category
-            List<Map<String, Object>> salesByCategory = groupProductsByCategory(products);
+            List<Map<String, Object>> salesByCategory = groupProductsByCategory(productRepository.sumPriceByCollectionType(storeUuid));
             log.info("Sales by category data points: {}", salesByCategory.size());
 
             // Mock traffic sources data
@@ -90,25 +102,19 @@ public class DashboardService {
             );
 
             // Get recent orders
-            List<Map<String, Object>> recentOrders = orders.stream()
-                    .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                    .limit(5)
+            List<Map<String, Object>> recentOrders = orderRepository.findTop5ByStoreIdOrderByCreatedAtDesc(storeUuid).stream()
                     .map(this::convertOrderToMap)
                     .collect(Collectors.toList());
             log.info("Recent orders: {}", recentOrders.size());
 
             // Get top products
-            List<Map<String, Object>> topProducts = products.stream()
-                    .sorted(Comparator.comparing(Product::getPrice).reversed())
-                    .limit(4)
+            List<Map<String, Object>> topProducts = productRepository.findTop4ByStoreIdOrderByPriceDesc(storeUuid).stream()
                     .map(this::convertProductToMap)
                     .collect(Collectors.toList());
             log.info("Top products: {}", topProducts.size());
 
             // Get recent customers
-            List<Map<String, Object>> recentCustomers = customers.stream()
-                    .sorted(Comparator.comparing(Customer::getCreatedAt).reversed())
-                    .limit(3)
+            List<Map<String, Object>> recentCustomers = customerRepository.findTop3ByStoreIdOrderByCreatedAtDesc(storeUuid).stream()
                     .map(this::convertCustomerToMap)
                     .collect(Collectors.toList());
             log.info("Recent customers: {}", recentCustomers.size());
@@ -119,6 +125,7 @@ public class DashboardService {
             stats.put("totalCustomers", totalCustomers);
             stats.put("averageOrderValue", averageOrderValue);
             stats.put("salesByMonth", salesByMonth);
+            stats.put("ordersByStatus", ordersByStatus);
             stats.put("salesByCategory", salesByCategory);
             stats.put("trafficSources", trafficSources);
             stats.put("recentOrders", recentOrders);
@@ -160,7 +167,8 @@ public class DashboardService {
         return customerMap;
     }
 
-    private List<Map<String, Object>> groupOrdersByMonth(List<Order> orders) {
+    // Package-private and stateless so it can be benchmarked in isolation
+    static List<Map<String, Object>> groupStatsByMonth(List<StoreDailyStats> dailyStats) {
         String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
         List<Map<String, Object>> salesData = new ArrayList<>();
 
@@ -172,28 +180,34 @@ public class DashboardService {
             salesData.add(monthData);
         }
 
-        for (Order order : orders) {
-            if (order.getCreatedAt() != null) {
-                Calendar cal = Calendar.getInstance();
-                cal.setTime(order.getCreatedAt());
-                int monthIndex = cal.get(Calendar.MONTH);
-                Map<String, Object> monthData = salesData.get(monthIndex);
-                monthData.put("value", ((Number) monthData.get("value")).doubleValue() + (order.getTotalAmount() != null ? order.getTotalAmount() : 0.0));
-                monthData.put("orders", ((Number) monthData.get("orders")).intValue() + 1);
-            }
+        for (StoreDailyStats day : dailyStats) {
+            int monthIndex = day.getStatDate().getMonthValue() - 1;
+            Map<String, Object> monthData = salesData.get(monthIndex);
+            monthData.put("value", ((Number) monthData.get("value")).doubleValue() + day.getOrderAmount());
+            monthData.put("orders", ((Number) monthData.get("orders")).longValue() + day.getOrderCount());
         }
 
         return salesData;
     }
 
-    private List<Map<String, Object>> groupProductsByCategory(List<Product> products) {
+    private Map<String, Long> groupStatusCounts(List<StoreDailyStatusCount> statusCounts) {
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status.name(), 0L);
+        }
+        for (StoreDailyStatusCount count : statusCounts) {
+            ordersByStatus.merge(count.getStatus().name(), count.getOrderCount(), Long::sum);
+        }
+        return ordersByStatus;
+    }
+
+    private List<Map<String, Object>> groupProductsByCategory(List<Object[]> totalsByType) {
         Map<String, Double> categories = new HashMap<>();
 
-        for (Product product : products) {
-            String category = product.getCollections() != null && !product.getCollections().isEmpty()
-                    ? String.valueOf(product.getCollections().get(0).getType())
-                    : "Other";
-            categories.merge(category, product.getPrice(), Double::sum);
+        for (Object[] row : totalsByType) {
+            String category = row[0] != null ? String.valueOf(row[0]) : "Other";
+            double total = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
+            categories.merge(category, total, Double::sum);
         }
 
         return categories.entrySet().stream()
@@ -0,0 +1,116 @@
+package com.sokoby.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sokoby.entity.Customer;
+import com.sokoby.entity.Order;
+import com.sokoby.enums.OrderStatus;
+import com.sokoby.repository.StoreDailyStatsRepository;
+import com.sokoby.repository.StoreDailyStatusCountRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the per-store, per-day dashboard rollups in step with order and customer writes.
+ * Orders are attributed to the day they were created, so a status change moves the order
+ * between status buckets of that day rather than to the day of the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsService {
+
+    public static final Set<OrderStatus> SALE_STATUSES = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.DELIVERED);
+
+    private final StoreDailyStatsRepository storeDailyStatsRepository;
+    private final StoreDailyStatusCountRepository storeDailyStatusCountRepository;
+
+    @Transactional
+    public void recordOrderCreated(Order order) {
+        if (!hasStoreAndDate(order)) {
+            return;
+        }
+        adjust(order.getStore().getId(), toDay(order.getCreatedAt()), order.getStatus(), 1, amountOf(order.getTotalAmount()));
+    }
+
+    @Transactional
+    public void recordOrderChanged(Order order, OrderStatus previousStatus, Double previousAmount) {
+        if (!hasStoreAndDate(order)) {
+            return;
+        }
+        double newAmount = amountOf(order.getTotalAmount());
+        double oldAmount = amountOf(previousAmount);
+        if (order.getStatus() == previousStatus && Double.compare(newAmount, oldAmount) == 0) {
+            return;
+        }
+        UUID storeId = order.getStore().getId();
+        LocalDate day = toDay(order.getCreatedAt());
+        adjust(storeId, day, previousStatus, -1, -oldAmount);
+        adjust(storeId, day, order.getStatus(), 1, newAmount);
+    }
+
+    @Transactional
+    public void recordOrderDeleted(Order order) {
+        if (!hasStoreAndDate(order)) {
+            return;
+        }
+        adjust(order.getStore().getId(), toDay(order.getCreatedAt()), order.getStatus(), -1, -amountOf(order.getTotalAmount()));
+    }
+
+    @Transactional
+    public void recordCustomerCreated(Customer customer) {
+        if (customer.getStore() == null || customer.getCreatedAt() == null) {
+            return;
+        }
+        storeDailyStatsRepository.increment(customer.getStore().getId(), toDay(customer.getCreatedAt()), 0, 0.0, 0, 0.0, 1);
+    }
+
+    @Transactional
+    public void recordCustomerDeleted(Customer customer) {
+        if (customer.getStore() == null || customer.getCreatedAt() == null) {
+            return;
+        }
+        storeDailyStatsRepository.increment(customer.getStore().getId(), toDay(customer.getCreatedAt()), 0, 0.0, 0, 0.0, -1);
+    }
+
+    // Recomputes a store's rollups from the source tables, e.g. after a data fix or for stores created before the rollups existed
+    @Transactional
+    public void rebuildStoreStats(UUID storeId) {
+        log.info("Rebuilding dashboard rollups for store: {}", storeId);
+        storeDailyStatsRepository.deleteByStoreId(storeId);
+        storeDailyStatusCountRepository.deleteByStoreId(storeId);
+        storeDailyStatsRepository.rebuildForStore(storeId);
+        storeDailyStatusCountRepository.rebuildForStore(storeId);
+    }
+
+    private void adjust(UUID storeId, LocalDate day, OrderStatus status, long orders, double amount) {
+        boolean sale = status != null && SALE_STATUSES.contains(status);
+        storeDailyStatsRepository.increment(storeId, day, orders, amount,
+                sale ? orders : 0, sale ? amount : 0.0, 0);
+        if (status != null) {
+            storeDailyStatusCountRepository.increment(storeId, day, status.name(), orders);
+        }
+    }
+
+    private boolean hasStoreAndDate(Order order) {
+        return order.getStore() != null && order.getCreatedAt() != null;
+    }
+
+    private double amountOf(Double amount) {
+        return Objects.requireNonNullElse(amount, 0.0);
+    }
+
+    public static LocalDate toDay(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
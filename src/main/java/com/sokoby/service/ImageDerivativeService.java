@@ -0,0 +1,187 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.ProductImage;
+import com.sokoby.enums.ImageDerivative;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the fixed-width {@link ImageDerivative}s of an uploaded image as compressed JPEGs and
+ * stores them next to the original, so listings never ship the multi-megabyte upload.
+ */
+@Service
+public class ImageDerivativeService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+    private static final String CONTENT_TYPE = "image/jpeg";
+    private static final int MAX_DERIVATIVE_WIDTH = Arrays.stream(ImageDerivative.values())
+            .mapToInt(ImageDerivative::getWidth).max().orElse(0);
+
+    private final BucketService bucketService;
+
+    @Value("${app.images.derivative-quality:0.8}")
+    private float quality;
+    @Value("${app.images.max-source-pixels:100000000}")
+    private long maxSourcePixels;
+
+    public ImageDerivativeService(BucketService bucketService) {
+        this.bucketService = bucketService;
+    }
+
+    /**
+     * Generates and uploads every derivative of {@code file}, whose original is stored at
+     * {@code originalUrl}. Returns the derivative URLs; empty when the file is not a decodable
+     * image, in which case clients fall back to the original.
+     */
+    public Map<ImageDerivative, String> createDerivatives(MultipartFile file, String originalUrl, String bucketName) {
+        Map<ImageDerivative, String> urls = new EnumMap<>(ImageDerivative.class);
+        BufferedImage source = decode(file, originalUrl);
+        if (source == null) {
+            return urls;
+        }
+
+        String baseKey = keyOf(originalUrl);
+        int dot = baseKey.lastIndexOf('.');
+        if (dot > 0) {
+            baseKey = baseKey.substring(0, dot);
+        }
+        try {
+            for (ImageDerivative derivative : ImageDerivative.values()) {
+                byte[] bytes = encode(resize(source, derivative.getWidth()));
+                String key = baseKey + "_" + derivative.name().toLowerCase() + ".jpg";
+                urls.put(derivative, bucketService.uploadStream(new ByteArrayInputStream(bytes), bytes.length,
+                        CONTENT_TYPE, key, bucketName));
+            }
+        } catch (RuntimeException | IOException e) {
+            // Leave no partial set behind; the caller decides whether the upload as a whole fails
+            urls.values().forEach(url -> bucketService.deleteFile(keyOf(url), bucketName));
+            throw new IllegalStateException("Failed to create image derivatives", e);
+        }
+        return urls;
+    }
+
+    public void apply(ProductImage image, Map<ImageDerivative, String> derivatives) {
+        image.setThumbnailUrl(derivatives.get(ImageDerivative.THUMBNAIL));
+        image.setCardUrl(derivatives.get(ImageDerivative.CARD));
+        image.setZoomUrl(derivatives.get(ImageDerivative.ZOOM));
+    }
+
+    // Original plus every derivative, for deleting an image completely
+    public List<String> allUrls(ProductImage image) {
+        List<String> urls = new ArrayList<>();
+        for (String url : new String[]{image.getImageUrl(), image.getThumbnailUrl(), image.getCardUrl(), image.getZoomUrl()}) {
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    public static String keyOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Reads the dimensions from the header first and refuses images over the pixel cap, then
+     * decodes with source subsampling down to about twice the widest derivative, so a huge upload
+     * never becomes a full-resolution raster on the heap. Returns null when there is nothing to render.
+     */
+    private BufferedImage decode(MultipartFile file, String originalUrl) {
+        try (InputStream inputStream = file.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = imageInput == null ? null : ImageIO.getImageReaders(imageInput);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Skipping derivatives for {}: not a readable image", originalUrl);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    logger.warn("Skipping derivatives for {}: {}x{} exceeds the {} pixel limit",
+                            originalUrl, width, height, maxSourcePixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (2 * MAX_DERIVATIVE_WIDTH));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Skipping derivatives for {}: not a readable image ({})", originalUrl, e.getMessage());
+            return null;
+        }
+    }
+
+    // Never upscales; JPEG has no alpha, so transparent areas are flattened onto white
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        // Halve in steps first: a single bilinear pass from 4000px to 200px aliases badly
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2);
+        }
+        return draw(current, width);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,140 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Product;
+import com.sokoby.entity.ProductImage;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.repository.ProductImageRepository;
+import com.sokoby.util.ThreadFactories;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Uploads all images of a product request, with their derivatives, concurrently on a bounded pool
+ * and inserts their ProductImage rows in one batch. If any upload fails, or the surrounding transaction rolls back,
+ * the objects that did reach the bucket are deleted again.
+ */
+@Service
+public class ImageUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadService.class);
+
+    private final BucketService bucketService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ProductImageRepository productImageRepository;
+
+    @Value("${app.images.upload-concurrency:8}")
+    private int concurrency;
+    @Value("${app.images.queue-capacity:200}")
+    private int queueCapacity;
+    @Value("${app.images.upload-timeout:60s}")
+    private Duration uploadTimeout;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+
+    public ImageUploadService(BucketService bucketService, ImageDerivativeService imageDerivativeService,
+                              ProductImageRepository productImageRepository) {
+        this.bucketService = bucketService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.productImageRepository = productImageRepository;
+    }
+
+    @PostConstruct
+    private void start() {
+        // When the queue is full the request thread uploads its own file instead of failing
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("image-upload-", virtualThreads),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    private void stop() {
+        executor.shutdown();
+    }
+
+    public List<ProductImage> uploadProductImages(Product product, List<MultipartFile> files, String bucketName) {
+        if (files == null || files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<CompletableFuture<ProductImage>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> upload(product, file, bucketName), executor))
+                .toList();
+
+        List<ProductImage> images = new ArrayList<>();
+        long deadline = System.nanoTime() + uploadTimeout.toNanos();
+        try {
+            for (CompletableFuture<ProductImage> upload : uploads) {
+                images.add(upload.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Completed uploads are removed now, ones still running as soon as they finish
+            uploads.forEach(upload -> upload.thenAccept(image -> delete(image, bucketName)));
+            logger.error("Failed to upload images for product {}: {}", product.getId(), e.getMessage());
+            throw new MerchantException("Failed to upload product images", "IMAGE_UPLOAD_ERROR");
+        }
+
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        images.forEach(image -> delete(image, bucketName));
+                    }
+                }
+            });
+        }
+        try {
+            return productImageRepository.saveAll(images);
+        } catch (RuntimeException e) {
+            if (!inTransaction) {
+                images.forEach(image -> delete(image, bucketName));
+            }
+            throw e;
+        }
+    }
+
+    // Original first, then its derivatives; the original is removed again if they cannot be made
+    private ProductImage upload(Product product, MultipartFile file, String bucketName) {
+        ProductImage image = new ProductImage();
+        image.setProduct(product);
+        image.setImageUrl(bucketService.uploadFile(file, bucketName));
+        try {
+            imageDerivativeService.apply(image, imageDerivativeService.createDerivatives(file, image.getImageUrl(), bucketName));
+        } catch (RuntimeException e) {
+            delete(image, bucketName);
+            throw e;
+        }
+        return image;
+    }
+
+    private void delete(ProductImage image, String bucketName) {
+        for (String url : imageDerivativeService.allUrls(image)) {
+            String key = ImageDerivativeService.keyOf(url);
+            if (!bucketService.deleteFile(key, bucketName)) {
+                logger.warn("Could not delete orphaned image {}", key);
+            }
+        }
+    }
+}
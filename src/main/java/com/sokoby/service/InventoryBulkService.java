@@ -0,0 +1,253 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Inventory;
+import com.sokoby.enums.StockAdjustmentMode;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.payload.BulkStockResultDto;
+import com.sokoby.payload.BulkStockRowDto;
+import com.sokoby.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies warehouse stock syncs of thousands of rows. Rows are processed in chunks, each in its own
+ * transaction: one query resolves and row-locks the chunk's inventories by SKU code or barcode,
+ * the new levels are worked out in memory (so repeated SKUs in a chunk compose), and the changes
+ * go out as one JDBC batch of UPDATEs plus one batch of ledger inserts. Striped SKUs take the
+ * regular InventoryService path. Bad rows are reported individually and never fail their chunk;
+ * a chunk that fails as a whole is rolled back and all of its rows are reported.
+ */
+@Service
+public class InventoryBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryBulkService.class);
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryService inventoryService;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.bulk.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${app.inventory.bulk.max-rows:50000}")
+    private int maxRows;
+
+    public InventoryBulkService(NamedParameterJdbcTemplate namedJdbcTemplate, JdbcTemplate jdbcTemplate,
+                                InventoryService inventoryService, InventoryRepository inventoryRepository,
+                                InventoryLedgerService inventoryLedgerService,
+                                PlatformTransactionManager transactionManager) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryService = inventoryService;
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryLedgerService = inventoryLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkStockResultDto apply(StockAdjustmentMode mode, List<BulkStockRowDto> rows) {
+        if (mode == null) {
+            throw new MerchantException("Mode must be SET or DELTA", "INVALID_MODE");
+        }
+        BulkStockResultDto result = new BulkStockResultDto();
+        if (rows == null || rows.isEmpty()) {
+            return result;
+        }
+        if (rows.size() > maxRows) {
+            throw new MerchantException("At most " + maxRows + " rows per request", "TOO_MANY_ROWS");
+        }
+        result.setReceived(rows.size());
+
+        long started = System.currentTimeMillis();
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Line> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + chunkSize, rows.size()); i++) {
+                Line line = new Line(i, rows.get(i));
+                String error = validate(mode, line.row());
+                if (error != null) {
+                    result.getFailures().add(failure(line, "INVALID_ROW", error));
+                } else {
+                    chunk.add(line);
+                }
+            }
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            List<BulkStockResultDto.Failure> chunkFailures = new ArrayList<>();
+            try {
+                Integer applied = transactionTemplate.execute(status -> applyChunk(mode, chunk, chunkFailures));
+                result.setApplied(result.getApplied() + (applied == null ? 0 : applied));
+                result.getFailures().addAll(chunkFailures);
+            } catch (Exception e) {
+                logger.error("Bulk stock chunk starting at row {} failed: {}", from, e.getMessage(), e);
+                for (Line line : chunk) {
+                    result.getFailures().add(failure(line, "CHUNK_FAILED", "Chunk rolled back: " + e.getMessage()));
+                }
+            }
+        }
+        logger.info("Bulk stock {} applied {} of {} rows in {} ms", mode, result.getApplied(), result.getReceived(),
+                System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private int applyChunk(StockAdjustmentMode mode, List<Line> chunk, List<BulkStockResultDto.Failure> failures) {
+        Map<String, Target> byCode = new HashMap<>();
+        Map<String, Target> byBarcode = new HashMap<>();
+        lockTargets(chunk, byCode, byBarcode);
+
+        int applied = 0;
+        Map<UUID, Target> changed = new LinkedHashMap<>();
+        for (Line line : chunk) {
+            Target target = hasText(line.row().getSkuCode())
+                    ? byCode.get(line.row().getSkuCode().trim())
+                    : byBarcode.get(line.row().getBarcode().trim());
+            if (target == null) {
+                failures.add(failure(line, "INVENTORY_NOT_FOUND", "No inventory for this SKU code or barcode"));
+                continue;
+            }
+            int quantity = line.row().getQuantity();
+            if (target.striped) {
+                String error = applyStriped(mode, target, quantity);
+                if (error != null) {
+                    failures.add(failure(line, "INSUFFICIENT_STOCK", error));
+                    continue;
+                }
+            } else {
+                int level = mode == StockAdjustmentMode.SET ? quantity : target.level + quantity;
+                if (level < 0) {
+                    failures.add(failure(line, "INSUFFICIENT_STOCK", "Only " + target.level + " in stock"));
+                    continue;
+                }
+                target.level = level;
+                changed.put(target.inventoryId, target);
+            }
+            applied++;
+        }
+
+        if (!changed.isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(changed.size());
+            Map<UUID, Integer> deltas = new LinkedHashMap<>();
+            for (Target target : changed.values()) {
+                updates.add(new Object[]{target.level, target.inventoryId});
+                deltas.put(target.skuId, target.level - target.originalLevel);
+            }
+            jdbcTemplate.batchUpdate("UPDATE inventory_items SET stock_quantity = ? WHERE id = ?", updates);
+            inventoryLedgerService.recordAll(deltas, StockMovementReason.IMPORTED);
+        }
+        return applied;
+    }
+
+    // One round-trip resolves the whole chunk; locking in id order keeps concurrent syncs from deadlocking
+    private void lockTargets(List<Line> chunk, Map<String, Target> byCode, Map<String, Target> byBarcode) {
+        Set<String> codes = new LinkedHashSet<>();
+        Set<String> barcodes = new LinkedHashSet<>();
+        for (Line line : chunk) {
+            if (hasText(line.row().getSkuCode())) {
+                codes.add(line.row().getSkuCode().trim());
+            } else {
+                barcodes.add(line.row().getBarcode().trim());
+            }
+        }
+        List<String> predicates = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!codes.isEmpty()) {
+            predicates.add("s.sku_code IN (:codes)");
+            params.addValue("codes", codes);
+        }
+        if (!barcodes.isEmpty()) {
+            predicates.add("s.barcode IN (:barcodes)");
+            params.addValue("barcodes", barcodes);
+        }
+        String sql = "SELECT s.sku_id, s.sku_code, s.barcode, i.id, i.stock_quantity, i.slot_count " +
+                "FROM skus s JOIN inventory_items i ON i.sku_id = s.sku_id " +
+                "WHERE " + String.join(" OR ", predicates) + " ORDER BY i.id FOR UPDATE OF i";
+        namedJdbcTemplate.query(sql, params, rs -> {
+            Target target = new Target(rs.getObject(1, UUID.class), rs.getObject(4, UUID.class),
+                    rs.getInt(5), rs.getInt(6) > 0);
+            String code = rs.getString(2);
+            String barcode = rs.getString(3);
+            if (code != null) {
+                byCode.put(code, target);
+            }
+            if (barcode != null) {
+                byBarcode.put(barcode, target);
+            }
+        });
+    }
+
+    // Striped stock lives in slot rows, which the regular service already knows how to move
+    private String applyStriped(StockAdjustmentMode mode, Target target, int quantity) {
+        if (mode == StockAdjustmentMode.SET) {
+            Inventory inventory = inventoryRepository.findById(target.inventoryId).orElseThrow();
+            inventoryService.setStock(inventory, quantity);
+        } else if (quantity > 0) {
+            inventoryService.restockForSku(target.skuId, quantity, StockMovementReason.IMPORTED, null);
+        } else if (quantity < 0
+                && !inventoryService.deductForSku(target.skuId, -quantity, StockMovementReason.IMPORTED, null)) {
+            return "Not enough stock to take " + -quantity;
+        }
+        return null;
+    }
+
+    private static String validate(StockAdjustmentMode mode, BulkStockRowDto row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        if (hasText(row.getSkuCode()) == hasText(row.getBarcode())) {
+            return "Set exactly one of skuCode or barcode";
+        }
+        if (row.getQuantity() == null) {
+            return "Quantity is required";
+        }
+        if (mode == StockAdjustmentMode.SET && row.getQuantity() < 0) {
+            return "Stock level cannot be negative";
+        }
+        return null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static BulkStockResultDto.Failure failure(Line line, String code, String message) {
+        BulkStockRowDto row = line.row();
+        return new BulkStockResultDto.Failure(line.index(), row == null ? null : row.getSkuCode(),
+                row == null ? null : row.getBarcode(), code, message);
+    }
+
+    private record Line(int index, BulkStockRowDto row) {
+    }
+
+    private static final class Target {
+        private final UUID skuId;
+        private final UUID inventoryId;
+        private final int originalLevel;
+        private final boolean striped;
+        private int level;
+
+        private Target(UUID skuId, UUID inventoryId, int level, boolean striped) {
+            this.skuId = skuId;
+            this.inventoryId = inventoryId;
+            this.originalLevel = level;
+            this.level = level;
+            this.striped = striped;
+        }
+    }
+}
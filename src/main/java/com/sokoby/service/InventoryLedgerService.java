@@ -0,0 +1,152 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.InventoryMovement;
+import com.sokoby.entity.InventorySnapshot;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.repository.InventoryMovementRepository;
+import com.sokoby.repository.InventorySnapshotRepository;
+import com.sokoby.util.ThreadFactories;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of every stock change. Each change to an inventory counter inserts one
+ * {@link InventoryMovement} in the same transaction; movements are never updated, so writers never
+ * wait on each other here. A compactor periodically folds the settled movements of every SKU that
+ * moved into a new {@link InventorySnapshot}, so any level is one snapshot plus a short run of
+ * deltas, and prunes movements older than the retention window once a snapshot covers them.
+ * Only movements created before the settle time are compacted, which keeps a slow transaction
+ * from committing a movement below a boundary that was already snapshotted.
+ */
+@Service
+public class InventoryLedgerService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedgerService.class);
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.ledger.compaction-interval:5m}")
+    private Duration compactionInterval;
+    @Value("${app.inventory.ledger.settle-time:2m}")
+    private Duration settleTime;
+    @Value("${app.inventory.ledger.retention:30d}")
+    private Duration retention;
+
+    private ScheduledExecutorService compactor;
+
+    public InventoryLedgerService(InventoryMovementRepository movementRepository,
+                                  InventorySnapshotRepository snapshotRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    private void start() {
+        compactor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("inventory-ledger-compactor-", false));
+        compactor.scheduleWithFixedDelay(this::compact, compactionInterval.toMillis(), compactionInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void stop() {
+        compactor.shutdownNow();
+    }
+
+    // Joins the caller's transaction, so the movement commits or rolls back with the counter change
+    public void record(UUID skuId, int delta, StockMovementReason reason, UUID orderId) {
+        if (delta == 0) {
+            return;
+        }
+        InventoryMovement movement = new InventoryMovement();
+        movement.setSkuId(skuId);
+        movement.setDelta(delta);
+        movement.setReason(reason);
+        movement.setOrderId(orderId);
+        movementRepository.save(movement);
+    }
+
+    // Bulk form of record: one JDBC batch instead of an identity insert per movement
+    public void recordAll(Map<UUID, Integer> deltasBySku, StockMovementReason reason) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(deltasBySku.size());
+        deltasBySku.forEach((skuId, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{skuId, delta, reason.name(), now});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO inventory_movements (sku_id, delta, reason, created_at) VALUES (?, ?, ?, ?)", rows);
+        }
+    }
+
+    public List<InventoryMovement> recentMovements(UUID skuId, int limit) {
+        return movementRepository.findRecentBySkuId(skuId, PageRequest.of(0, Math.max(1, Math.min(limit, 500))));
+    }
+
+    // Latest snapshot plus every movement after it
+    public long currentLevel(UUID skuId) {
+        Optional<InventorySnapshot> snapshot = snapshotRepository.findFirstBySkuIdOrderByThroughMovementIdDesc(skuId);
+        long base = snapshot.map(InventorySnapshot::getStockLevel).orElse(0);
+        long after = snapshot.map(InventorySnapshot::getThroughMovementId).orElse(0L);
+        return base + movementRepository.sumDeltasAfter(skuId, after);
+    }
+
+    // Last snapshot taken by then plus the movements after it up to that instant
+    public long levelAt(UUID skuId, Date at) {
+        Optional<InventorySnapshot> snapshot =
+                snapshotRepository.findFirstBySkuIdAndTakenAtLessThanEqualOrderByTakenAtDesc(skuId, at);
+        long base = snapshot.map(InventorySnapshot::getStockLevel).orElse(0);
+        long after = snapshot.map(InventorySnapshot::getThroughMovementId).orElse(0L);
+        return base + movementRepository.sumDeltasAfterUntil(skuId, after, at);
+    }
+
+    private void compact() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!snapshotRepository.tryLockCompaction()) {
+                    return;
+                }
+                long now = System.currentTimeMillis();
+                long previous = snapshotRepository.findLatestThroughId();
+                long through = movementRepository.findSettledMaxId(new Date(now - settleTime.toMillis()));
+                if (through > previous) {
+                    int snapshots = snapshotRepository.compactThrough(through, new Date(now));
+                    logger.info("Compacted inventory movements up to {} into {} snapshots", through, snapshots);
+                }
+                int pruned = movementRepository.deleteCompacted(Math.max(through, previous),
+                        new Date(now - retention.toMillis()));
+                if (pruned > 0) {
+                    logger.info("Pruned {} compacted inventory movements", pruned);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Inventory ledger compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.sokoby.service;
 
 import com.sokoby.entity.Inventory;
+import com.sokoby.entity.SKU;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.payload.AvailabilityRequestDto;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface InventoryService {
@@ -10,6 +14,7 @@ public interface InventoryService {
 
     Inventory createInventoryForVariant(UUID variantId, Integer initialStock);
     Inventory createInventoryForProduct(UUID productId, Integer initialStock);
+    Inventory createInventory(SKU sku, Integer initialStock);
 
     Inventory getInventoryById(UUID id);
 
@@ -23,9 +28,23 @@ public interface InventoryService {
     boolean isAvailable(UUID variantId, int quantity);
     boolean isAvailableForProduct(UUID productId, Integer quantity);
 
+    // Keyed by the requested variant or product id; unknown ids and items without inventory map to false
+    Map<UUID, Boolean> checkAvailability(List<AvailabilityRequestDto> items);
+
     void reserveStock(UUID variantId, int quantity);
     void reserveStockForProduct(UUID productId, int quantity);
 
     void releaseStock(UUID variantId, int quantity);
     void releaseStockForProduct(UUID productId, int quantity);
+
+    // Stock moves by SKU id that also cover striped SKUs and land in the movement ledger;
+    // deductForSku returns false when stock is short. orderId may be null.
+    boolean deductForSku(UUID skuId, int quantity, StockMovementReason reason, UUID orderId);
+    void restockForSku(UUID skuId, int quantity, StockMovementReason reason, UUID orderId);
+
+    // Sets an absolute stock level on an existing or new inventory row, splitting it over slots when striped
+    void setStock(Inventory inventory, int stock);
+
+    // High-contention mode: spreads the SKU's stock over slotCount rows; 0 or 1 folds it back into one
+    Inventory setSlotCount(UUID inventoryId, int slotCount);
 }
\ No newline at end of file
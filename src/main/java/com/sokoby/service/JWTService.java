@@ -6,11 +6,20 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
@@ -20,43 +29,114 @@ public class JWTService {
     private String issuer;
     @Value("${jwt.expiry.duration}")
     private long expiryTime;
+    // 0 disables the verified-token cache
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private long verifiedCacheMaxEntries;
 
     private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private Cache<String, DecodedJWT> verifiedTokens;
 
     private final String EMAIL = "username";
+    private final String ROLE = "role";
 
     @PostConstruct
     private void initializeAlgorithm() {
         algorithm = Algorithm.HMAC256(algorithmKey);
+        // JWTVerifier is immutable and thread-safe, so one instance serves every request
+        verifier = JWT.require(algorithm).withIssuer(issuer).build();
+        if (verifiedCacheMaxEntries > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxEntries)
+                    .expireAfter(new Expiry<String, DecodedJWT>() {
+                        @Override
+                        public long expireAfterCreate(String key, DecodedJWT jwt, long currentTime) {
+                            return remainingNanos(jwt);
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+                            return remainingNanos(jwt);
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
     }
 
-    public String generateToken(String email) {
+    public String generateToken(String email, String role) {
         String sign = JWT.create()
                         .withClaim(EMAIL,email)
+                        .withClaim(ROLE,role)
                         .withExpiresAt(new Date(System.currentTimeMillis() + expiryTime))
                         .withIssuer(issuer)
                         .sign(algorithm);
-        System.out.println("Token Generated : " + sign);
         return sign;
     }
 
-    public String getUserEmail(String token) {
-        try {
-            DecodedJWT decodedJWT = JWT.require(algorithm).withIssuer(issuer).build().verify(token);
-            return decodedJWT.getClaim(EMAIL).asString();
-        } catch (JWTVerificationException e) {
-            throw new RuntimeException(e);
+    /**
+     * Verifies signature, issuer and expiry once and returns the decoded token, or empty when the
+     * token is invalid. Recently verified tokens are served from a cache keyed by their SHA-256
+     * hash until they expire.
+     */
+    public Optional<DecodedJWT> verify(String token) {
+        if (verifiedTokens == null) {
+            return verifyUncached(token);
         }
+        String key = hash(token);
+        DecodedJWT cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<DecodedJWT> verified = verifyUncached(token);
+        verified.ifPresent(jwt -> verifiedTokens.put(key, jwt));
+        return verified;
+    }
+
+    public String getUserEmail(DecodedJWT jwt) {
+        return jwt.getClaim(EMAIL).asString();
+    }
+
+    public String getUserRole(DecodedJWT jwt) {
+        return jwt.getClaim(ROLE).asString();
+    }
+
+    public String getUserEmail(String token) {
+        return verify(token).map(this::getUserEmail)
+                .orElseThrow(() -> new RuntimeException("Invalid or expired token"));
     }
 
     public boolean isTokenValid(String token) {
+        return verify(token).isPresent();
+    }
+
+    private Optional<DecodedJWT> verifyUncached(String token) {
         try {
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            verifier.verify(token);
-            return true;
+            return Optional.of(verifier.verify(token));
         } catch (JWTVerificationException e) {
             // Handle invalid or expired token
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    private static long remainingNanos(DecodedJWT jwt) {
+        Date expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return 0;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt.getTime() - System.currentTimeMillis()));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
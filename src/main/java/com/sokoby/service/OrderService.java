@@ -1,10 +1,9 @@
 package com.sokoby.service;
 
 import com.sokoby.payload.OrderDto;
-import org.springframework.cache.annotation.CacheEvict;
+import com.sokoby.payload.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,13 +17,13 @@ public interface OrderService {
 
     List<OrderDto> getOrdersByStoreId(UUID storeId);
 
+    CursorPage<OrderDto> getOrdersByStoreIdAfter(UUID storeId, String cursor, int size);
+
     OrderDto updateOrder(UUID id, OrderDto dto);
 
     void deleteOrder(UUID id);
 
     OrderDto updateOrderStatus(UUID id, String status);
 
-    @Transactional
-    @CacheEvict(value = "orders", allEntries = true)
     OrderDto createOrderWithCustomerDetails(OrderDto dto);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.sokoby.service;
 
+import com.sokoby.payload.CheckoutSessionDto;
 import com.sokoby.payload.PaymentDto;
 import com.sokoby.payload.SubscriptionDto;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,9 +10,11 @@ import java.util.Map;
 import java.util.UUID;
 
 public interface PaymentService {
-    @Transactional
+    // Returns null while the session is still being created; poll getCheckoutStatus
     String createPaymentSession(UUID orderId);
 
+    CheckoutSessionDto getCheckoutStatus(UUID orderId);
+
     PaymentDto createPayment(UUID orderId);
     PaymentDto getPaymentById(UUID id);
     PaymentDto getPaymentByOrderId(UUID orderId);
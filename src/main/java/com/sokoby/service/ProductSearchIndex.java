@@ -0,0 +1,363 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Collection;
+import com.sokoby.entity.Product;
+import com.sokoby.entity.Variant;
+import com.sokoby.payload.ProductSuggestionDto;
+import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.VariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-process inverted index backing storefront autocomplete. Built once at startup and then kept
+// in sync by ProductServiceImpl, so lookups never touch the database.
+@Service
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // Field weights: a title hit outranks a variant or collection hit, which outranks a description hit
+    private static final int TITLE_WEIGHT = 3;
+    private static final int VARIANT_WEIGHT = 2;
+    private static final int COLLECTION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.8;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private final ProductRepository productRepository;
+    private final VariantRepository variantRepository;
+
+    private final Map<UUID, StoreIndex> stores = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> productStores = new ConcurrentHashMap<>();
+
+    public ProductSearchIndex(ProductRepository productRepository, VariantRepository variantRepository) {
+        this.productRepository = productRepository;
+        this.variantRepository = variantRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<UUID, Document> documents = new HashMap<>();
+        for (Object[] row : productRepository.findSearchDocuments()) {
+            UUID productId = (UUID) row[0];
+            Document document = new Document(productId, (UUID) row[1], (String) row[2]);
+            document.addText((String) row[2], TITLE_WEIGHT);
+            document.addText((String) row[3], DESCRIPTION_WEIGHT);
+            documents.put(productId, document);
+        }
+        for (Object[] row : productRepository.findCollectionTypesForSearch()) {
+            Document document = documents.get((UUID) row[0]);
+            if (document != null && row[1] != null) {
+                document.addText(row[1].toString(), COLLECTION_WEIGHT);
+            }
+        }
+        for (Object[] row : variantRepository.findVariantNamesForSearch()) {
+            Document document = documents.get((UUID) row[0]);
+            if (document != null) {
+                document.addText((String) row[1], VARIANT_WEIGHT);
+            }
+        }
+
+        stores.clear();
+        productStores.clear();
+        documents.values().forEach(this::apply);
+        logger.info("Built product search index with {} products across {} stores", documents.size(), stores.size());
+    }
+
+    // Snapshots the searchable fields now and applies them once the surrounding transaction commits
+    public void index(Product product) {
+        if (product == null || product.getId() == null || product.getStore() == null) {
+            return;
+        }
+        Document document = new Document(product.getId(), product.getStore().getId(), product.getTitle());
+        document.addText(product.getTitle(), TITLE_WEIGHT);
+        document.addText(product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getCollections() != null) {
+            for (Collection collection : product.getCollections()) {
+                if (collection.getType() != null) {
+                    document.addText(collection.getType().toString(), COLLECTION_WEIGHT);
+                }
+            }
+        }
+        if (product.getVariants() != null) {
+            for (Variant variant : product.getVariants()) {
+                document.addText(variant.getName(), VARIANT_WEIGHT);
+            }
+        }
+        afterCommit(() -> apply(document));
+    }
+
+    public void remove(UUID productId) {
+        afterCommit(() -> {
+            UUID storeId = productStores.remove(productId);
+            StoreIndex storeIndex = storeId != null ? stores.get(storeId) : null;
+            if (storeIndex != null) {
+                storeIndex.remove(productId);
+            }
+        });
+    }
+
+    public List<ProductSuggestionDto> suggest(UUID storeId, String query, int limit) {
+        List<String> tokens = tokenize(query);
+        StoreIndex storeIndex = stores.get(storeId);
+        if (tokens.isEmpty() || storeIndex == null || limit <= 0) {
+            return List.of();
+        }
+        return storeIndex.search(tokens, limit);
+    }
+
+    private void apply(Document document) {
+        UUID previousStore = productStores.put(document.productId, document.storeId);
+        if (previousStore != null && !previousStore.equals(document.storeId)) {
+            StoreIndex previous = stores.get(previousStore);
+            if (previous != null) {
+                previous.remove(document.productId);
+            }
+        }
+        stores.computeIfAbsent(document.storeId, id -> new StoreIndex()).put(document);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(TOKEN_SEPARATOR.split(normalized.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    // Short tokens are too ambiguous to correct, so they only prefix-match
+    static int maxEdits(String token) {
+        if (token.length() <= 3) return 0;
+        if (token.length() <= 7) return 1;
+        return 2;
+    }
+
+    // Levenshtein distance that gives up as soon as it is known to exceed max
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Document {
+        private final UUID productId;
+        private final UUID storeId;
+        private final String title;
+        // term -> highest field weight it appears in
+        private final Map<String, Integer> terms = new HashMap<>();
+
+        private Document(UUID productId, UUID storeId, String title) {
+            this.productId = productId;
+            this.storeId = storeId;
+            this.title = title;
+        }
+
+        private void addText(String text, int weight) {
+            for (String token : tokenize(text)) {
+                terms.merge(token, weight, Math::max);
+            }
+        }
+    }
+
+    private static final class StoreIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+        // Same terms bucketed by length, so typo matching only looks at terms a few characters off
+        private final Map<Integer, NavigableSet<String>> termsByLength = new HashMap<>();
+        private final Map<UUID, Document> documents = new HashMap<>();
+
+        private void put(Document document) {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(document.productId);
+                documents.put(document.productId, document);
+                document.terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> {
+                    termsByLength.computeIfAbsent(t.length(), length -> new TreeSet<>()).add(t);
+                    return new HashMap<>();
+                }).put(document.productId, weight));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(UUID productId) {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeUnlocked(UUID productId) {
+            Document existing = documents.remove(productId);
+            if (existing == null) {
+                return;
+            }
+            for (String term : existing.terms.keySet()) {
+                Map<UUID, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(productId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                        NavigableSet<String> bucket = termsByLength.get(term.length());
+                        bucket.remove(term);
+                        if (bucket.isEmpty()) {
+                            termsByLength.remove(term.length());
+                        }
+                    }
+                }
+            }
+        }
+
+        private List<ProductSuggestionDto> search(List<String> tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                // Every token has to match; a product's score is the sum of its best match per token
+                Map<UUID, Double> scores = null;
+                for (String token : tokens) {
+                    Map<UUID, Double> tokenScores = matchToken(token);
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        scores.keySet().retainAll(tokenScores.keySet());
+                        scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                List<ProductSuggestionDto> suggestions = new ArrayList<>(scores.size());
+                scores.forEach((id, score) -> suggestions.add(new ProductSuggestionDto(id, documents.get(id).title, score)));
+                suggestions.sort(Comparator.comparingDouble(ProductSuggestionDto::getScore).reversed()
+                        .thenComparing(ProductSuggestionDto::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+                return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Map<UUID, Double> matchToken(String token) {
+            Map<UUID, Double> matches = new HashMap<>();
+
+            // Exact and prefix hits come straight from the sorted term range
+            for (Map.Entry<String, Map<UUID, Integer>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                double quality = entry.getKey().equals(token) ? EXACT_MATCH : PREFIX_MATCH;
+                addMatches(matches, entry.getValue(), quality);
+            }
+
+            int maxEdits = maxEdits(token);
+            if (maxEdits == 0) {
+                return matches;
+            }
+            // Typo tolerance, blocked on the first character: a typo there is rare and checking it would
+            // mean comparing against every term in the store. Whole terms come from the length buckets
+            // within maxEdits of the token.
+            String block = token.substring(0, 1);
+            String blockEnd = block + Character.MAX_VALUE;
+            for (int length = Math.max(1, token.length() - maxEdits); length <= token.length() + maxEdits; length++) {
+                NavigableSet<String> bucket = termsByLength.get(length);
+                if (bucket == null) {
+                    continue;
+                }
+                for (String term : bucket.subSet(block, true, blockEnd, true)) {
+                    if (term.startsWith(token)) {
+                        continue;
+                    }
+                    int distance = editDistance(token, term, maxEdits);
+                    if (distance <= maxEdits) {
+                        addMatches(matches, postings.get(term), FUZZY_MATCH / distance);
+                    }
+                }
+            }
+
+            // A misspelt partial word ("iphne") still completes to "iphone": longer terms are compared by
+            // their prefix of the token's length, once per distinct prefix since the terms are sorted
+            Map.Entry<String, Map<UUID, Integer>> entry = postings.ceilingEntry(block);
+            while (entry != null && entry.getKey().startsWith(block)) {
+                String term = entry.getKey();
+                if (term.length() <= token.length()) {
+                    entry = postings.higherEntry(term);
+                    continue;
+                }
+                String head = term.substring(0, token.length());
+                int distance = head.equals(token) ? 0 : editDistance(token, head, maxEdits);
+                if (distance > 0 && distance <= maxEdits) {
+                    for (Map.Entry<String, Map<UUID, Integer>> completion
+                            : postings.subMap(head, false, head + Character.MAX_VALUE, true).entrySet()) {
+                        addMatches(matches, completion.getValue(), FUZZY_MATCH / distance);
+                    }
+                }
+                entry = postings.higherEntry(head + Character.MAX_VALUE);
+            }
+            return matches;
+        }
+
+        private void addMatches(Map<UUID, Double> matches, Map<UUID, Integer> posting, double quality) {
+            posting.forEach((productId, weight) -> matches.merge(productId, weight * quality, Math::max));
+        }
+    }
+}
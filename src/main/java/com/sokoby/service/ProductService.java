@@ -2,6 +2,9 @@ package com.sokoby.service;
 
 import com.sokoby.payload.ProductCreationDto;
 import com.sokoby.payload.ProductDto;
+import com.sokoby.payload.ProductSuggestionDto;
+import com.sokoby.payload.CursorPage;
+import com.sokoby.payload.ProductSummaryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,12 +18,24 @@ public interface ProductService {
 
     ProductCreationDto getProductById(UUID productId);
 
+    // Loads the full entity graph for every product; prefer listProductsByStore
+    @Deprecated
     List<ProductDto> getProductsByStoreId(UUID storeId);
 
     Page<ProductDto> searchProducts(String query, Pageable pageable);
 
     Page<ProductDto> searchProductsByStore(UUID storeId, String query, Pageable pageable);
 
+    CursorPage<ProductDto> searchProductsAfter(String query, String cursor, int size);
+
+    CursorPage<ProductDto> searchProductsByStoreAfter(UUID storeId, String query, String cursor, int size);
+
+    CursorPage<ProductSummaryDto> listProducts(String cursor, int size);
+
+    CursorPage<ProductSummaryDto> listProductsByStore(UUID storeId, String cursor, int size);
+
+    List<ProductSuggestionDto> autocomplete(UUID storeId, String query, int limit);
+
     ProductDto updateProduct(UUID id, ProductDto dto);
 
     void deleteProduct(UUID id);
@@ -32,6 +47,8 @@ public interface ProductService {
     @Transactional
     ProductCreationDto updateProductWithDetails(UUID productId, ProductCreationDto dto, MultipartFile[] files);
 
+    // Loads the whole catalog with its entity graph; prefer listProducts
+    @Deprecated
     List<ProductDto> getAllProducts();
 
     List<ProductDto> getProductsByCollection(String collectionType);
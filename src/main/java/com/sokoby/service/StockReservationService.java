@@ -0,0 +1,206 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Order;
+import com.sokoby.entity.OrderItem;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.StockReservation;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.enums.StockReservationStatus;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.repository.StockReservationRepository;
+import com.sokoby.util.ThreadFactories;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-bounded stock holds for orders awaiting payment. Creating an order takes its stock off the
+ * shelf with one conditional decrement per SKU and records a {@link StockReservation} per SKU;
+ * payment converts the holds into permanent deductions. Holds that outlive their TTL are returned
+ * to stock by a sweeper that works like a coarse timer wheel: expiries are rounded up to the sweep
+ * tick, so every hold due in the same tick is released by the same batch through the
+ * (status, expires_at) index.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final StockReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.reservations.hold-ttl:30m}")
+    private Duration holdTtl;
+    @Value("${app.reservations.sweep-interval:5s}")
+    private Duration sweepInterval;
+    @Value("${app.reservations.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ScheduledExecutorService sweeper;
+
+    public StockReservationService(StockReservationRepository reservationRepository, InventoryService inventoryService,
+                                   PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    private void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("stock-reservation-sweeper-", false));
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Holds stock for every line of a newly saved order, or of a pending order whose lines were
+     * replaced after {@link #release(UUID)}; the released holds are dropped so they are not taken
+     * again on conversion. Runs in the order's transaction, so a SKU that runs out rolls back the
+     * order together with the holds already taken.
+     */
+    public void hold(Order order) {
+        reservationRepository.deleteReleasedByOrderId(order.getId());
+        Date expiresAt = expiryFor(System.currentTimeMillis());
+        List<StockReservation> holds = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantitiesBySku(order).entrySet()) {
+            if (!inventoryService.deductForSku(entry.getKey(), entry.getValue(), StockMovementReason.RESERVED, order.getId())) {
+                throw new MerchantException("Insufficient stock to reserve", "INSUFFICIENT_STOCK");
+            }
+            holds.add(newReservation(order.getId(), entry.getKey(), entry.getValue(), StockReservationStatus.HELD, expiresAt));
+        }
+        reservationRepository.saveAll(holds);
+    }
+
+    /**
+     * Makes an order's holds permanent once it is paid. Idempotent. Holds the sweeper already
+     * released are taken from stock again; orders placed before holds existed are deducted now.
+     */
+    public void convert(Order order) {
+        Date now = new Date();
+        List<StockReservation> holds = reservationRepository.findByOrderIdForUpdate(order.getId());
+        if (holds.isEmpty()) {
+            for (Map.Entry<UUID, Integer> entry : quantitiesBySku(order).entrySet()) {
+                deductLate(order.getId(), entry.getKey(), entry.getValue());
+                StockReservation converted = newReservation(order.getId(), entry.getKey(), entry.getValue(),
+                        StockReservationStatus.CONVERTED, now);
+                converted.setResolvedAt(now);
+                holds.add(converted);
+            }
+            reservationRepository.saveAll(holds);
+            return;
+        }
+        for (StockReservation hold : holds) {
+            if (hold.getStatus() == StockReservationStatus.CONVERTED) {
+                continue;
+            }
+            if (hold.getStatus() == StockReservationStatus.RELEASED) {
+                deductLate(order.getId(), hold.getSkuId(), hold.getQuantity());
+            }
+            hold.setStatus(StockReservationStatus.CONVERTED);
+            hold.setResolvedAt(now);
+        }
+    }
+
+    // Returns the stock of an order's outstanding holds, e.g. on payment failure or deletion
+    public void release(UUID orderId) {
+        Date now = new Date();
+        for (StockReservation hold : reservationRepository.findByOrderIdForUpdate(orderId)) {
+            if (hold.getStatus() == StockReservationStatus.HELD) {
+                inventoryService.restockForSku(hold.getSkuId(), hold.getQuantity(), StockMovementReason.RELEASED, orderId);
+                hold.setStatus(StockReservationStatus.RELEASED);
+                hold.setResolvedAt(now);
+            }
+        }
+    }
+
+    private void sweep() {
+        try {
+            int released;
+            do {
+                Integer batch = transactionTemplate.execute(status -> releaseExpiredBatch());
+                released = batch == null ? 0 : batch;
+            } while (released == sweepBatchSize);
+        } catch (Exception e) {
+            logger.error("Stock reservation sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // One statement per SKU in the batch rather than one per hold; the per-order detail stays on the holds
+    private int releaseExpiredBatch() {
+        Date now = new Date();
+        List<StockReservation> expired = reservationRepository.lockExpired(now, sweepBatchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Integer> bySku = new TreeMap<>();
+        List<UUID> ids = new ArrayList<>(expired.size());
+        for (StockReservation hold : expired) {
+            bySku.merge(hold.getSkuId(), hold.getQuantity(), Integer::sum);
+            ids.add(hold.getId());
+        }
+        bySku.forEach((skuId, quantity) ->
+                inventoryService.restockForSku(skuId, quantity, StockMovementReason.EXPIRED, null));
+        reservationRepository.markReleased(ids, now);
+        logger.info("Released {} expired stock holds across {} SKUs", expired.size(), bySku.size());
+        return expired.size();
+    }
+
+    private void deductLate(UUID orderId, UUID skuId, int quantity) {
+        if (!inventoryService.deductForSku(skuId, quantity, StockMovementReason.SOLD, orderId)) {
+            // Payment is already captured, so the order stands; the shortfall needs manual follow-up
+            logger.warn("Order {} was paid after its hold lapsed and SKU {} no longer has {} in stock",
+                    orderId, skuId, quantity);
+        }
+    }
+
+    // Rounded up to the sweep tick so holds created in the same tick expire together
+    private Date expiryFor(long nowMillis) {
+        long tick = Math.max(1, sweepInterval.toMillis());
+        long due = nowMillis + holdTtl.toMillis();
+        return new Date((due + tick - 1) / tick * tick);
+    }
+
+    // Sorted by SKU id so concurrent orders lock inventory rows in the same order and cannot deadlock
+    private static Map<UUID, Integer> quantitiesBySku(Order order) {
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            SKU sku = item.getVariant() != null ? item.getVariant().getSku() : item.getProduct().getSku();
+            if (sku == null) {
+                throw new MerchantException("Product has no SKU assigned", "NO_SKU_ASSIGNED");
+            }
+            quantities.merge(sku.getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static StockReservation newReservation(UUID orderId, UUID skuId, int quantity,
+                                                   StockReservationStatus status, Date expiresAt) {
+        StockReservation reservation = new StockReservation();
+        reservation.setOrderId(orderId);
+        reservation.setSkuId(skuId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(status);
+        reservation.setExpiresAt(expiresAt);
+        return reservation;
+    }
+}
@@ -1,6 +1,7 @@
 package com.sokoby.service;
 
 import com.sokoby.payload.VariantDto;
+import com.sokoby.payload.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,8 @@ public interface VariantService {
 
     Page<VariantDto> searchVariants(String query, Pageable pageable);
 
+    CursorPage<VariantDto> searchVariantsAfter(String query, String cursor, int size);
+
     Page<VariantDto> searchVariantsByProduct(UUID productId, String query, Pageable pageable);
 
     VariantDto updateVariant(UUID id, VariantDto dto);
@@ -0,0 +1,205 @@
+package com.sokoby.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sokoby.entity.StripeWebhookEvent;
+import com.sokoby.repository.StripeWebhookEventRepository;
+import com.sokoby.util.ThreadFactories;
+import com.stripe.model.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable inbox for Stripe webhooks. The controller only verifies and stores an event; a single
+ * dispatcher thread hands due events to a fixed set of single-threaded lanes, picking for each
+ * ordering key only its oldest unfinished event so payments and subscriptions see events in order.
+ * Failures are retried with exponential backoff and parked as FAILED after the last attempt.
+ */
+@Service
+public class WebhookInboxService {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookInboxService.class);
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final WebhookService webhookService;
+
+    @Value("${app.webhooks.workers:4}")
+    private int workers;
+    @Value("${app.webhooks.queue-capacity:100}")
+    private int queueCapacity;
+    @Value("${app.webhooks.batch-size:50}")
+    private int batchSize;
+    @Value("${app.webhooks.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${app.webhooks.backoff-initial:2s}")
+    private Duration backoffInitial;
+    @Value("${app.webhooks.backoff-max:10m}")
+    private Duration backoffMax;
+    @Value("${app.webhooks.poll-interval:1s}")
+    private Duration pollInterval;
+    @Value("${app.webhooks.processing-timeout:5m}")
+    private Duration processingTimeout;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ScheduledExecutorService dispatcher;
+    private ThreadPoolExecutor[] lanes;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public WebhookInboxService(StripeWebhookEventRepository eventRepository, WebhookService webhookService) {
+        this.eventRepository = eventRepository;
+        this.webhookService = webhookService;
+    }
+
+    @PostConstruct
+    private void start() {
+        lanes = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("webhook-worker-" + i + "-", virtualThreads));
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("webhook-dispatcher-", false));
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void stop() {
+        dispatcher.shutdownNow();
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * Stores a verified event. Returns false when Stripe redelivered an event already in the inbox.
+     */
+    public boolean receive(Event event, String payload) {
+        long created = event.getCreated() != null ? event.getCreated() : System.currentTimeMillis() / 1000;
+        boolean inserted = eventRepository.insertIfAbsent(event.getId(), event.getType(), orderingKey(event, payload),
+                created, payload) == 1;
+        if (inserted) {
+            wakeUp();
+        } else {
+            logger.info("Duplicate webhook event {} ignored", event.getId());
+        }
+        return inserted;
+    }
+
+    private void wakeUp() {
+        try {
+            dispatcher.execute(this::dispatchSafely);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next node start picks the event up
+        }
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (Exception e) {
+            logger.error("Webhook dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatch() {
+        Date now = new Date();
+        eventRepository.releaseStale(new Date(now.getTime() - processingTimeout.toMillis()), now);
+
+        List<String> dueIds = eventRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        for (String id : dueIds) {
+            if (inFlight.contains(id) || eventRepository.claim(id, now) == 0) {
+                continue;
+            }
+            StripeWebhookEvent event = eventRepository.findById(id).orElse(null);
+            if (event == null) {
+                continue;
+            }
+            inFlight.add(id);
+            try {
+                lanes[Math.floorMod(event.getOrderingKey().hashCode(), lanes.length)].execute(() -> process(event));
+            } catch (RejectedExecutionException e) {
+                // Lane is full: leave the event pending for a later pass
+                inFlight.remove(id);
+                eventRepository.unclaim(id);
+            }
+        }
+    }
+
+    private void process(StripeWebhookEvent event) {
+        try {
+            webhookService.process(event.getType(), event.getPayload());
+            eventRepository.markProcessed(event.getId(), new Date());
+            logger.info("Processed webhook event {} ({})", event.getId(), event.getType());
+        } catch (Exception e) {
+            String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            if (event.getAttempts() >= maxAttempts) {
+                eventRepository.markFailed(event.getId(), error);
+                logger.error("Webhook event {} ({}) failed permanently after {} attempts: {}",
+                        event.getId(), event.getType(), event.getAttempts(), error, e);
+            } else {
+                Duration delay = backoff(event.getAttempts());
+                eventRepository.scheduleRetry(event.getId(), new Date(System.currentTimeMillis() + delay.toMillis()), error);
+                logger.warn("Webhook event {} ({}) failed on attempt {}, retrying in {}: {}",
+                        event.getId(), event.getType(), event.getAttempts(), delay, error);
+            }
+        } finally {
+            inFlight.remove(event.getId());
+            // The next event for this key may now be eligible
+            wakeUp();
+        }
+    }
+
+    // Exponential backoff with jitter in [delay/2, delay], capped at backoffMax
+    private Duration backoff(int attempts) {
+        long base = backoffInitial.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, backoffMax.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    // Groups events that touch the same payment or subscription
+    static String orderingKey(Event event, String payload) {
+        try {
+            JsonObject object = JsonParser.parseString(payload).getAsJsonObject()
+                    .getAsJsonObject("data").getAsJsonObject("object");
+            String objectType = text(object.get("object"));
+            String id = text(object.get("id"));
+            String subscription = text(object.get("subscription"));
+            String paymentIntent = text(object.get("payment_intent"));
+            if (subscription != null) return "subscription:" + subscription;
+            if ("subscription".equals(objectType)) return "subscription:" + id;
+            if (paymentIntent != null) return "payment_intent:" + paymentIntent;
+            if ("payment_intent".equals(objectType)) return "payment_intent:" + id;
+            if (id != null) return objectType + ":" + id;
+        } catch (RuntimeException e) {
+            logger.warn("Could not derive ordering key for event {}: {}", event.getId(), e.getMessage());
+        }
+        return "event:" + event.getId();
+    }
+
+    private static String text(JsonElement element) {
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+}
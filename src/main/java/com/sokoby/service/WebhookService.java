@@ -7,11 +7,13 @@ import com.sokoby.entity.Payment;
 import com.sokoby.entity.Subscription;
 import com.sokoby.enums.SubscriptionStatus;
 import com.sokoby.exception.MerchantException;
+import com.sokoby.repository.OrderRepository;
 import com.sokoby.repository.PaymentRepository;
 import com.sokoby.repository.SubscriptionRepository;
 import com.stripe.model.Event;
 import com.stripe.model.EventDataObjectDeserializer;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.ApiResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +37,30 @@ public class WebhookService {
     @Autowired
     private SubscriptionRepository subscriptionRepository;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    // Applies one stored event in a single transaction; exceptions propagate so the inbox can retry it
+    @Transactional
+    public void process(String type, String payload) {
+        Event event = ApiResource.GSON.fromJson(payload, Event.class);
+        switch (type) {
+            case "checkout.session.completed" -> handleCheckoutSessionCompleted(event, payload);
+            case "checkout.session.expired" -> handleCheckoutSessionExpired(payload);
+            case "payment_intent.succeeded" -> handlePaymentIntentSucceeded(event, payload);
+            case "payment_intent.payment_failed" -> handlePaymentIntentFailed(event, payload);
+            case "customer.subscription.created" -> handleSubscriptionCreated(event, payload);
+            case "customer.subscription.updated" -> handleSubscriptionUpdated(event, payload);
+            case "customer.subscription.deleted" -> handleSubscriptionDeleted(event, payload);
+            case "invoice.payment_failed" -> handleInvoicePaymentFailed(event, payload);
+            case "invoice.payment_succeeded" -> handleInvoicePaymentSucceeded(event, payload);
+            default -> logger.info("Unhandled event type: '{}'", type);
+        }
+    }
+
     @Transactional
     public void handleCheckoutSessionCompleted(Event event, String payload) {
         try {
@@ -72,6 +98,19 @@ public class WebhookService {
         }
     }
 
+    // The customer abandoned checkout; hand the order's held stock back without waiting for the hold TTL
+    public void handleCheckoutSessionExpired(String payload) {
+        JsonObject object = JsonParser.parseString(payload).getAsJsonObject()
+                .getAsJsonObject("data").getAsJsonObject("object");
+        String sessionId = object.get("id").getAsString();
+        paymentRepository.findByStripeCheckoutSessionId(sessionId)
+                .flatMap(payment -> orderRepository.findByPaymentId(payment.getId()))
+                .ifPresentOrElse(order -> {
+                    stockReservationService.release(order.getId());
+                    logger.info("Released stock holds of order {} after checkout session {} expired", order.getId(), sessionId);
+                }, () -> logger.info("No order found for expired checkout session {}", sessionId));
+    }
+
     public void handlePaymentIntentSucceeded(Event event, String payload) {
         try {
             EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
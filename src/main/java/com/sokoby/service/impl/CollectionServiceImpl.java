@@ -7,11 +7,14 @@ import com.sokoby.enums.CollectionType;
 import com.sokoby.exception.MerchantException;
 import com.sokoby.mapper.CollectionMapper;
 import com.sokoby.payload.CollectionDto;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.ProductDto;
 import com.sokoby.repository.CollectionRepository;
 import com.sokoby.repository.ProductRepository;
 import com.sokoby.repository.StoreRepository;
 import com.sokoby.service.CollectionService;
+import com.sokoby.service.ProductSearchIndex;
+import com.sokoby.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +23,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,15 +37,18 @@ public class CollectionServiceImpl implements CollectionService {
     private final CollectionRepository collectionRepository;
     private final StoreRepository storeRepository;
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
 
     @Autowired
     public CollectionServiceImpl(
             CollectionRepository collectionRepository,
             StoreRepository storeRepository,
-            ProductRepository productRepository) {
+            ProductRepository productRepository,
+            ProductSearchIndex productSearchIndex) {
         this.collectionRepository = collectionRepository;
         this.storeRepository = storeRepository;
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
     }
 
     @Override
@@ -62,6 +70,7 @@ public class CollectionServiceImpl implements CollectionService {
             Collection savedCollection = collectionRepository.save(collection);
             product.getCollections().add(savedCollection); // Update the product's collections
             productRepository.save(product);
+            productSearchIndex.index(product);
             logger.info("Created collection with type: {} for store: {} and product: {}", dto.getType(), dto.getStoreId(), productId);
             return CollectionMapper.toDto(savedCollection);
         } catch (Exception e) {
@@ -99,6 +108,14 @@ public class CollectionServiceImpl implements CollectionService {
         return collectionPage.map(CollectionMapper::toDto);
     }
 
+    @Override
+    public CursorPage<CollectionDto> getCategoriesByStoreIdAfter(UUID storeId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<Collection> collections = collectionRepository.findByStoreIdAfter(storeId, position.getCreatedAt(),
+                position.getId(), PageCursor.limit(size));
+        return PageCursor.toPage(collections, size, Collection::getCreatedAt, Collection::getId, CollectionMapper::toDto);
+    }
+
     @Override
     @Transactional
     public CollectionDto updateCategory(UUID id, CollectionDto dto) {
@@ -111,6 +128,8 @@ public class CollectionServiceImpl implements CollectionService {
         if (dto.getVendor() != null) {
             collection.setVendor(dto.getVendor());
         }
+        // Collection types are searchable: products leaving the collection are re-indexed too
+        Set<Product> affected = new LinkedHashSet<>(collection.getProducts() != null ? collection.getProducts() : List.of());
         if (dto.getProducts() != null && !dto.getProducts().isEmpty()) {
             List<UUID> productIds = dto.getProducts().stream()
                     .map(ProductDto::getId)
@@ -120,10 +139,12 @@ public class CollectionServiceImpl implements CollectionService {
                 throw new MerchantException("One or more products not found", "PRODUCTS_NOT_FOUND");
             }
             collection.setProducts(products);
+            affected.addAll(products);
         }
 
         try {
             Collection updatedCollection = collectionRepository.save(collection);
+            affected.forEach(productSearchIndex::index);
             logger.info("Updated collection with ID: {}", id);
             return CollectionMapper.toDto(updatedCollection);
         } catch (Exception e) {
@@ -142,6 +163,7 @@ public class CollectionServiceImpl implements CollectionService {
             collection.getProducts().forEach(product -> product.getCollections().remove(collection));
             productRepository.saveAll(collection.getProducts());
             collectionRepository.delete(collection);
+            collection.getProducts().forEach(productSearchIndex::index);
             logger.info("Deleted collection with ID: {}", id);
         } catch (Exception e) {
             logger.error("Failed to delete collection with ID: {}: {}", id, e.getMessage());
@@ -4,16 +4,22 @@ import com.sokoby.entity.Customer;
 import com.sokoby.entity.Store;
 import com.sokoby.exception.CustomerException;
 import com.sokoby.mapper.CustomerMapper;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.CustomerDto;
 import com.sokoby.payload.JWTTokenDto;
 import com.sokoby.payload.LoginDto;
 import com.sokoby.repository.CustomerRepository;
 import com.sokoby.repository.StoreRepository;
+import com.sokoby.security.PrincipalCache;
 import com.sokoby.service.CustomerService;
+import com.sokoby.service.DashboardStatsService;
 import com.sokoby.service.JWTService;
+import com.sokoby.util.FullTextSearch;
+import com.sokoby.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -33,12 +39,20 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final StoreRepository storeRepository;
     private final JWTService jwtService;
+    private final DashboardStatsService dashboardStatsService;
+    private final PrincipalCache principalCache;
+
+    @Value("${app.search.full-text-enabled:true}")
+    private boolean fullTextSearchEnabled;
 
     @Autowired
-    public CustomerServiceImpl(CustomerRepository customerRepository, StoreRepository storeRepository, JWTService jwtService) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, StoreRepository storeRepository, JWTService jwtService,
+                               DashboardStatsService dashboardStatsService, PrincipalCache principalCache) {
         this.customerRepository = customerRepository;
         this.storeRepository = storeRepository;
         this.jwtService = jwtService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -66,6 +80,7 @@ public class CustomerServiceImpl implements CustomerService {
 
         try {
             Customer savedCustomer = customerRepository.save(customer);
+            dashboardStatsService.recordCustomerCreated(savedCustomer);
             logger.info("Created customer {} for store {}", dto.getEmail(), storeId);
             return CustomerMapper.toDto(savedCustomer);
         } catch (Exception e) {
@@ -98,7 +113,9 @@ public class CustomerServiceImpl implements CustomerService {
 
         Page<Customer> customerPage = (query == null || query.trim().isEmpty())
                 ? customerRepository.findAll(pageable)
-                : customerRepository.searchCustomers(query, pageable);
+                : FullTextSearch.search(query, pageable, fullTextSearchEnabled,
+                        customerRepository::fullTextSearchCustomers,
+                        () -> customerRepository.searchCustomers(query, pageable));
 
         if (customerPage.isEmpty()) {
             logger.warn("No customers found for query: {}", query);
@@ -117,7 +134,9 @@ public class CustomerServiceImpl implements CustomerService {
 
         Page<Customer> customerPage = (query == null || query.trim().isEmpty())
                 ? customerRepository.findByStoreId(storeId, pageable)
-                : customerRepository.searchCustomersByStore(storeId, query, pageable);
+                : FullTextSearch.search(query, pageable, fullTextSearchEnabled,
+                        (tsQuery, ranked) -> customerRepository.fullTextSearchCustomersByStore(storeId, tsQuery, ranked),
+                        () -> customerRepository.searchCustomersByStore(storeId, query, pageable));
 
         if (customerPage.isEmpty()) {
             logger.warn("No customers found for store {} with query: {}", storeId, query);
@@ -125,6 +144,17 @@ public class CustomerServiceImpl implements CustomerService {
         return mapToDtoPage(customerPage);
     }
 
+    @Override
+    public CursorPage<CustomerDto> searchCustomersByStoreAfter(UUID storeId, String query, String cursor, int size) {
+        if (!storeRepository.existsById(storeId)) {
+            throw new CustomerException("Store not found", "STORE_NOT_FOUND");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        List<Customer> customers = customerRepository.searchCustomersByStoreAfter(storeId,
+                query == null ? "" : query.trim(), position.getCreatedAt(), position.getId(), PageCursor.limit(size));
+        return PageCursor.toPage(customers, size, Customer::getCreatedAt, Customer::getId, CustomerMapper::toDto);
+    }
+
     private Page<CustomerDto> mapToDtoPage(Page<Customer> customerPage) {
         List<CustomerDto> dtos = customerPage.getContent()
                 .stream()
@@ -138,6 +168,7 @@ public class CustomerServiceImpl implements CustomerService {
     public CustomerDto updateCustomer(UUID id, CustomerDto dto) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new CustomerException("Customer not found", "CUSTOMER_NOT_FOUND"));
+        principalCache.invalidate(customer.getEmail());
 
         if (dto.getName() != null && !dto.getName().trim().isEmpty()) {
             customer.setName(dto.getName());
@@ -165,11 +196,12 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     @Transactional
     public void deleteCustomer(UUID id) {
-        if (!customerRepository.existsById(id)) {
-            throw new CustomerException("Customer not found", "CUSTOMER_NOT_FOUND");
-        }
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new CustomerException("Customer not found", "CUSTOMER_NOT_FOUND"));
         try {
-            customerRepository.deleteById(id);
+            customerRepository.delete(customer);
+            dashboardStatsService.recordCustomerDeleted(customer);
+            principalCache.invalidate(customer.getEmail());
             logger.info("Deleted customer with ID: {}", id);
         } catch (Exception e) {
             logger.error("Failed to delete customer with ID: {}", id, e);
@@ -184,7 +216,7 @@ public class CustomerServiceImpl implements CustomerService {
             if (opUser.isPresent()) {
                 if (BCrypt. checkpw(loginDto.getPassword(), opUser.get().getPassword())) {
                     final Customer user = opUser.get();
-                    String token = jwtService.generateToken(user.getEmail());
+                    String token = jwtService.generateToken(user.getEmail(), user.getRole());
                     return new JWTTokenDto(token, "JWT Token");
                 } else {
                     throw new CustomerException("Invalid password", "INVALID_PASSWORD");
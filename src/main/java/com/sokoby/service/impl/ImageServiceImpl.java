@@ -10,6 +10,7 @@ import com.sokoby.repository.ProductImageRepository;
 import com.sokoby.repository.ProductRepository;
 import com.sokoby.repository.StoreRepository;
 import com.sokoby.service.BucketService;
+import com.sokoby.service.ImageDerivativeService;
 import com.sokoby.service.ImageService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -25,12 +26,14 @@ public class ImageServiceImpl implements ImageService {
     private final ProductRepository productRepository;
     private final BucketService bucketService;
     private final StoreRepository storeRepository;
+    private final ImageDerivativeService imageDerivativeService;
 
-    public ImageServiceImpl(ProductImageRepository productImageRepository, ProductRepository productRepository, BucketService bucketService, StoreRepository storeRepository) {
+    public ImageServiceImpl(ProductImageRepository productImageRepository, ProductRepository productRepository, BucketService bucketService, StoreRepository storeRepository, ImageDerivativeService imageDerivativeService) {
         this.productImageRepository = productImageRepository;
         this.productRepository = productRepository;
         this.bucketService = bucketService;
         this.storeRepository = storeRepository;
+        this.imageDerivativeService = imageDerivativeService;
     }
 
     @Override
@@ -39,12 +42,11 @@ public class ImageServiceImpl implements ImageService {
         if (optionalImage.isPresent()) {
             ProductImage image = optionalImage.get();
 
-            // Extract the image URL or key for S3 deletion
-            String imageUrl = image.getImageUrl();
-            String fileName = extractFileNameFromUrl(imageUrl);
-
-            // Delete the file from S3 bucket
-            boolean isDeletedFromBucket = bucketService.deleteFile(fileName, bucketName);
+            // Delete the original and its derivatives from S3 bucket
+            boolean isDeletedFromBucket = true;
+            for (String url : imageDerivativeService.allUrls(image)) {
+                isDeletedFromBucket &= bucketService.deleteFile(extractFileNameFromUrl(url), bucketName);
+            }
 
             if (isDeletedFromBucket) {
                 // Delete the image record from the database
@@ -60,21 +62,19 @@ public class ImageServiceImpl implements ImageService {
     public ImageDto uploadImageFile(MultipartFile file, String bucketName, UUID productId) {
         Optional<Product> product = productRepository.findById(productId);
         if(product.isPresent()){
-            String imageUrl = "";
+            ProductImage image = new ProductImage();
+            image.setProduct(product.get());
             try {
-                imageUrl = bucketService.uploadFile(file, bucketName);
+                image.setImageUrl(bucketService.uploadFile(file, bucketName));
+                imageDerivativeService.apply(image, imageDerivativeService.createDerivatives(file, image.getImageUrl(), bucketName));
             } catch (Exception e) {
+                if (image.getImageUrl() != null) {
+                    bucketService.deleteFile(extractFileNameFromUrl(image.getImageUrl()), bucketName);
+                }
                 throw new RuntimeException(e);
             }
-            ProductImage image = new ProductImage();
-            image.setImageUrl(imageUrl);
-            image.setProduct(product.get());
             final ProductImage save = productImageRepository.save(image);
-            ImageDto imageDto = new ImageDto();
-            imageDto.setId(save.getId());
-            imageDto.setImageUrl(save.getImageUrl());
-            imageDto.setProductId(save.getProduct().getId());
-            return imageDto;
+            return ProductImageMapper.toDto(save);
         }
         return null;
     }
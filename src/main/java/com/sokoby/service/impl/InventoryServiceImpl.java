@@ -1,41 +1,58 @@
 package com.sokoby.service.impl;
 
 import com.sokoby.entity.Inventory;
+import com.sokoby.entity.InventorySlot;
 import com.sokoby.entity.Product;
 import com.sokoby.entity.SKU;
 import com.sokoby.entity.Variant;
+import com.sokoby.enums.StockMovementReason;
 import com.sokoby.exception.MerchantException;
 import com.sokoby.mapper.InventoryMapper;
+import com.sokoby.payload.AvailabilityRequestDto;
 import com.sokoby.repository.InventoryRepository;
+import com.sokoby.repository.InventorySlotRepository;
 import com.sokoby.repository.ProductRepository;
 import com.sokoby.repository.SKURepository;
 import com.sokoby.repository.VariantRepository;
+import com.sokoby.service.InventoryLedgerService;
 import com.sokoby.service.InventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class InventoryServiceImpl implements InventoryService {
+    private static final int MAX_AVAILABILITY_ITEMS = 500;
 
     private final InventoryRepository inventoryRepository;
     private final VariantRepository variantRepository;
     private final ProductRepository productRepository;
     private final SKURepository skuRepository;
+    private final InventorySlotRepository inventorySlotRepository;
+    private final InventoryLedgerService inventoryLedgerService;
 
     @Autowired
     public InventoryServiceImpl(
             InventoryRepository inventoryRepository,
             VariantRepository variantRepository,
             ProductRepository productRepository,
-            SKURepository skuRepository) {
+            SKURepository skuRepository,
+            InventorySlotRepository inventorySlotRepository,
+            InventoryLedgerService inventoryLedgerService) {
         this.inventoryRepository = inventoryRepository;
         this.variantRepository = variantRepository;
         this.productRepository = productRepository;
         this.skuRepository = skuRepository;
+        this.inventorySlotRepository = inventorySlotRepository;
+        this.inventoryLedgerService = inventoryLedgerService;
     }
 
     @Override
@@ -52,8 +69,7 @@ public class InventoryServiceImpl implements InventoryService {
         if (inventoryRepository.findBySku(sku).isPresent()) {
             throw new MerchantException("Inventory already exists for this SKU", "DUPLICATE_INVENTORY");
         }
-        Inventory inventory = InventoryMapper.toEntity(sku, initialStock);
-        return inventoryRepository.save(inventory);
+        return createInventory(sku, initialStock);
     }
 
     @Override
@@ -68,8 +84,15 @@ public class InventoryServiceImpl implements InventoryService {
         if (inventoryRepository.findBySku(sku).isPresent()) {
             throw new MerchantException("Inventory already exists for this SKU", "DUPLICATE_INVENTORY");
         }
-        Inventory inventory = InventoryMapper.toEntity(sku, initialStock);
-        return inventoryRepository.save(inventory);
+        return createInventory(sku, initialStock);
+    }
+
+    @Override
+    @Transactional
+    public Inventory createInventory(SKU sku, Integer initialStock) {
+        Inventory inventory = inventoryRepository.save(InventoryMapper.toEntity(sku, initialStock));
+        inventoryLedgerService.record(sku.getId(), inventory.getStockQuantity(), StockMovementReason.INITIAL, null);
+        return inventory;
     }
 
     @Override
@@ -83,8 +106,7 @@ public class InventoryServiceImpl implements InventoryService {
     public Inventory updateInventory(Inventory item) {
         Inventory existing = inventoryRepository.findById(item.getId())
                 .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        existing.setStockQuantity(item.getStockQuantity());
-        return inventoryRepository.save(existing);
+        return setLevel(existing, item.getStockQuantity());
     }
 
     @Override
@@ -94,8 +116,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
         Inventory inventory = inventoryRepository.findBySku(variant.getSku())
                 .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        inventory.setStockQuantity(newStock);
-        inventoryRepository.save(inventory);
+        setLevel(inventory, newStock);
     }
 
     @Override
@@ -108,8 +129,7 @@ public class InventoryServiceImpl implements InventoryService {
         }
         Inventory inventory = inventoryRepository.findBySku(product.getSku())
                 .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        inventory.setStockQuantity(newStock);
-        inventoryRepository.save(inventory);
+        setLevel(inventory, newStock);
     }
 
     @Override
@@ -139,59 +159,231 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElse(false);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Boolean> checkAvailability(List<AvailabilityRequestDto> items) {
+        if (items == null || items.isEmpty()) {
+            return Map.of();
+        }
+        if (items.size() > MAX_AVAILABILITY_ITEMS) {
+            throw new MerchantException("At most " + MAX_AVAILABILITY_ITEMS + " items per availability check",
+                    "TOO_MANY_ITEMS");
+        }
+        // Lines for the same variant or product add up, as they would in a cart
+        Map<UUID, Integer> variantQuantities = new LinkedHashMap<>();
+        Map<UUID, Integer> productQuantities = new LinkedHashMap<>();
+        for (AvailabilityRequestDto item : items) {
+            if ((item.getVariantId() == null) == (item.getProductId() == null)) {
+                throw new MerchantException("Each item needs either a variantId or a productId", "INVALID_ITEM");
+            }
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 1;
+            validateQuantity(quantity);
+            if (item.getVariantId() != null) {
+                variantQuantities.merge(item.getVariantId(), quantity, Integer::sum);
+            } else {
+                productQuantities.merge(item.getProductId(), quantity, Integer::sum);
+            }
+        }
+
+        Map<UUID, Integer> stock = new HashMap<>();
+        if (!variantQuantities.isEmpty()) {
+            inventoryRepository.findStockByVariantIdIn(variantQuantities.keySet())
+                    .forEach(row -> stock.put((UUID) row[0], (Integer) row[1]));
+        }
+        if (!productQuantities.isEmpty()) {
+            inventoryRepository.findStockByProductIdIn(productQuantities.keySet())
+                    .forEach(row -> stock.put((UUID) row[0], (Integer) row[1]));
+        }
+
+        Map<UUID, Boolean> availability = new LinkedHashMap<>();
+        variantQuantities.forEach((id, quantity) -> availability.put(id, hasStock(stock.get(id), quantity)));
+        productQuantities.forEach((id, quantity) -> availability.put(id, hasStock(stock.get(id), quantity)));
+        return availability;
+    }
+
     @Override
     @Transactional
     public void reserveStock(UUID variantId, int quantity) {
-        Variant variant = variantRepository.findById(variantId)
-                .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-        Inventory inventory = inventoryRepository.findBySku(variant.getSku())
-                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        if (inventory.getStockQuantity() < quantity) {
-            throw new MerchantException("Insufficient stock to reserve", "INSUFFICIENT_STOCK");
+        UUID skuId = skuIdForVariant(variantId);
+        if (!deductForSku(skuId, quantity, StockMovementReason.RESERVED, null)) {
+            throw reservationFailure(skuId);
         }
-        inventory.setStockQuantity(inventory.getStockQuantity() - quantity);
-        inventoryRepository.save(inventory);
     }
 
     @Override
     @Transactional
     public void reserveStockForProduct(UUID productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
-        if (product.getSku() == null) {
-            throw new MerchantException("Product has no SKU assigned", "NO_SKU_ASSIGNED");
-        }
-        Inventory inventory = inventoryRepository.findBySku(product.getSku())
-                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        if (inventory.getStockQuantity() < quantity) {
-            throw new MerchantException("Insufficient stock to reserve", "INSUFFICIENT_STOCK");
+        UUID skuId = skuIdForProduct(productId);
+        if (!deductForSku(skuId, quantity, StockMovementReason.RESERVED, null)) {
+            throw reservationFailure(skuId);
         }
-        inventory.setStockQuantity(inventory.getStockQuantity() - quantity);
-        inventoryRepository.save(inventory);
     }
 
     @Override
     @Transactional
     public void releaseStock(UUID variantId, int quantity) {
-        Variant variant = variantRepository.findById(variantId)
-                .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-        Inventory inventory = inventoryRepository.findBySku(variant.getSku())
-                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        inventory.setStockQuantity(inventory.getStockQuantity() + quantity);
-        inventoryRepository.save(inventory);
+        restockForSku(skuIdForVariant(variantId), quantity, StockMovementReason.RELEASED, null);
     }
 
     @Override
     @Transactional
     public void releaseStockForProduct(UUID productId, int quantity) {
+        restockForSku(skuIdForProduct(productId), quantity, StockMovementReason.RELEASED, null);
+    }
+
+    @Override
+    @Transactional
+    public boolean deductForSku(UUID skuId, int quantity, StockMovementReason reason, UUID orderId) {
+        validateQuantity(quantity);
+        if (inventoryRepository.decrementStockForSku(skuId, quantity) == 0 && !deductFromSlots(skuId, quantity)) {
+            return false;
+        }
+        inventoryLedgerService.record(skuId, -quantity, reason, orderId);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void restockForSku(UUID skuId, int quantity, StockMovementReason reason, UUID orderId) {
+        validateQuantity(quantity);
+        if (inventoryRepository.incrementStockForSku(skuId, quantity) == 0 && !addToSlot(skuId, quantity)) {
+            throw new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND");
+        }
+        inventoryLedgerService.record(skuId, quantity, reason, orderId);
+    }
+
+    @Override
+    @Transactional
+    public Inventory setSlotCount(UUID inventoryId, int slotCount) {
+        if (slotCount < 0) {
+            throw new MerchantException("Slot count cannot be negative", "INVALID_SLOT_COUNT");
+        }
+        Inventory inventory = inventoryRepository.findByIdForUpdate(inventoryId)
+                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
+        UUID skuId = inventory.getSku().getId();
+        List<InventorySlot> slots = inventorySlotRepository.findBySkuIdForUpdate(skuId);
+        int total = slots.stream().mapToInt(InventorySlot::getStockQuantity).sum()
+                + (inventory.isStriped() ? 0 : inventory.getStockQuantity());
+
+        if (slotCount <= 1) {
+            inventorySlotRepository.deleteAll(slots);
+            inventory.setSlotCount(0);
+            inventory.setStockQuantity(total);
+        } else {
+            inventory.setSlotCount(slotCount);
+            applyStock(inventory, total);
+        }
+        return inventoryRepository.save(inventory);
+    }
+
+    @Override
+    @Transactional
+    public void setStock(Inventory inventory, int stock) {
+        setLevel(inventory, stock);
+    }
+
+    // Absolute updates are recorded in the ledger as the difference to the level they replace
+    private Inventory setLevel(Inventory inventory, int newStock) {
+        int previous = applyStock(inventory, newStock);
+        Inventory saved = inventoryRepository.save(inventory);
+        inventoryLedgerService.record(saved.getSku().getId(), newStock - previous, StockMovementReason.ADJUSTMENT, null);
+        return saved;
+    }
+
+    // Absolute stock level, a striped SKU gets it split evenly over its slots; returns the level it replaced
+    private int applyStock(Inventory inventory, int newStock) {
+        if (!inventory.isStriped()) {
+            int previous = inventory.getId() == null ? 0 : inventoryRepository.lockStockQuantity(inventory.getId()).orElse(0);
+            inventory.setStockQuantity(newStock);
+            return previous;
+        }
+        UUID skuId = inventory.getSku().getId();
+        int slotCount = inventory.getSlotCount();
+        List<InventorySlot> existing = inventorySlotRepository.findBySkuIdForUpdate(skuId);
+        int previous = inventorySlotRepository.sumStockBySkuId(skuId);
+        List<InventorySlot> slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            InventorySlot slot = i < existing.size() ? existing.get(i) : new InventorySlot();
+            slot.setSkuId(skuId);
+            slot.setSlot(i);
+            slot.setStockQuantity(newStock / slotCount + (i < newStock % slotCount ? 1 : 0));
+            slots.add(slot);
+        }
+        inventorySlotRepository.saveAll(slots);
+        if (existing.size() > slotCount) {
+            inventorySlotRepository.deleteAll(existing.subList(slotCount, existing.size()));
+        }
+        inventory.setStockQuantity(0);
+        inventory.setSlotQuantity(newStock);
+        return previous;
+    }
+
+    /*
+     * Striped SKUs: a random starting slot spreads concurrent checkouts, and SKIP LOCKED moves on
+     * past slots another transaction holds. Only when no single free slot has enough (all busy, or
+     * the quantity spans slots) are all slots locked and drained in order.
+     */
+    private boolean deductFromSlots(UUID skuId, int quantity) {
+        int slotCount = inventoryRepository.findSlotCountBySkuId(skuId).orElse(0);
+        if (slotCount <= 0) {
+            return false;
+        }
+        int offset = ThreadLocalRandom.current().nextInt(slotCount);
+        if (inventorySlotRepository.takeFromFreeSlot(skuId, quantity, offset, slotCount) > 0) {
+            return true;
+        }
+        List<InventorySlot> slots = inventorySlotRepository.findBySkuIdForUpdate(skuId);
+        if (slots.stream().mapToInt(InventorySlot::getStockQuantity).sum() < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (InventorySlot slot : slots) {
+            int taken = Math.min(remaining, slot.getStockQuantity());
+            slot.setStockQuantity(slot.getStockQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private boolean addToSlot(UUID skuId, int quantity) {
+        int slotCount = inventoryRepository.findSlotCountBySkuId(skuId).orElse(0);
+        return slotCount > 0 && inventorySlotRepository.addToSlot(skuId,
+                ThreadLocalRandom.current().nextInt(slotCount), quantity) > 0;
+    }
+
+    private static boolean hasStock(Integer stock, int quantity) {
+        return stock != null && stock >= quantity;
+    }
+
+    private void validateQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new MerchantException("Quantity must be positive", "INVALID_QUANTITY");
+        }
+    }
+
+    private UUID skuIdForVariant(UUID variantId) {
+        Variant variant = variantRepository.findById(variantId)
+                .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
+        return variant.getSku().getId();
+    }
+
+    private UUID skuIdForProduct(UUID productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
         if (product.getSku() == null) {
             throw new MerchantException("Product has no SKU assigned", "NO_SKU_ASSIGNED");
         }
-        Inventory inventory = inventoryRepository.findBySku(product.getSku())
-                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        inventory.setStockQuantity(inventory.getStockQuantity() + quantity);
-        inventoryRepository.save(inventory);
+        return product.getSku().getId();
+    }
+
+    // Only reached when the conditional update touched no rows, so work out why
+    private MerchantException reservationFailure(UUID skuId) {
+        if (inventoryRepository.findSlotCountBySkuId(skuId).isEmpty()) {
+            return new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND");
+        }
+        return new MerchantException("Insufficient stock to reserve", "INSUFFICIENT_STOCK");
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.sokoby.payload.JWTTokenDto;
 import com.sokoby.payload.LoginDto;
 import com.sokoby.payload.MerchantDto;
 import com.sokoby.repository.MerchantRepository;
+import com.sokoby.security.PrincipalCache;
 import com.sokoby.service.JWTService;
 import com.sokoby.service.MerchantService;
 import org.slf4j.Logger;
@@ -30,14 +31,17 @@ public class MerchantServiceImpl implements MerchantService {
 
     private final MerchantRepository merchantRepo;
     private final JWTService jwtService;
+    private final PrincipalCache principalCache;
 
     @Autowired
     public MerchantServiceImpl(
         MerchantRepository merchantRepo, 
-        JWTService jwtService
+        JWTService jwtService,
+        PrincipalCache principalCache
     ) {
         this.merchantRepo = merchantRepo;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -108,6 +112,7 @@ public class MerchantServiceImpl implements MerchantService {
             throw new MerchantException("Email already exists", "DUPLICATE_EMAIL");
         }
 
+        principalCache.invalidate(merchant.getEmail());
         merchant.setEmail(dto.getEmail());
         if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
             merchant.setPassword(BCrypt.hashpw(dto.getPassword(), BCrypt.gensalt())); // Update password if provided
@@ -151,11 +156,11 @@ public class MerchantServiceImpl implements MerchantService {
     @Override
     @Transactional
     public void deleteMerchant(UUID id) {
-        if (!merchantRepo.existsById(id)) {
-            throw new MerchantException("Merchant not found", "MERCHANT_NOT_FOUND");
-        }
+        Merchant merchant = merchantRepo.findById(id)
+                .orElseThrow(() -> new MerchantException("Merchant not found", "MERCHANT_NOT_FOUND"));
         try {
-            merchantRepo.deleteById(id);
+            merchantRepo.delete(merchant);
+            principalCache.invalidate(merchant.getEmail());
             logger.info("Deleted merchant with ID: {}", id);
         } catch (Exception e) {
             logger.error("Failed to delete merchant with ID: {}", id, e);
@@ -183,7 +188,7 @@ public class MerchantServiceImpl implements MerchantService {
                 throw new MerchantException("Invalid password", "INVALID_PASSWORD");
             }
 
-            String token = jwtService.generateToken(merchant.getEmail()); // Using email as token subject
+            String token = jwtService.generateToken(merchant.getEmail(), merchant.getRole()); // Using email as token subject
             logger.info("Generated JWT token for merchant: {}", merchant.getEmail());
             JWTTokenDto jwtTokenDto = new JWTTokenDto();
             jwtTokenDto.setToken(token);
@@ -1,30 +1,40 @@
 package com.sokoby.service.impl;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sokoby.entity.Customer;
 import com.sokoby.entity.Discount;
+import com.sokoby.entity.Inventory;
 import com.sokoby.entity.Order;
 import com.sokoby.entity.OrderItem;
 import com.sokoby.entity.Payment;
 import com.sokoby.entity.Product;
+import com.sokoby.entity.SKU;
 import com.sokoby.entity.Store;
 import com.sokoby.entity.Variant;
 import com.sokoby.enums.OrderStatus;
 import com.sokoby.exception.MerchantException;
 import com.sokoby.mapper.AddressMapper;
 import com.sokoby.mapper.OrderMapper;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.OrderDto;
+import com.sokoby.payload.OrderItemDto;
 import com.sokoby.payload.PaymentDto;
 import com.sokoby.repository.CustomerRepository;
 import com.sokoby.repository.DiscountRepository;
@@ -33,9 +43,13 @@ import com.sokoby.repository.PaymentRepository;
 import com.sokoby.repository.ProductRepository;
 import com.sokoby.repository.StoreRepository;
 import com.sokoby.repository.VariantRepository;
+import com.sokoby.service.CheckoutSessionService;
+import com.sokoby.service.DashboardStatsService;
 import com.sokoby.service.InventoryService;
 import com.sokoby.service.OrderService;
 import com.sokoby.service.PaymentService;
+import com.sokoby.service.StockReservationService;
+import com.sokoby.util.PageCursor;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -51,14 +65,17 @@ public class OrderServiceImpl implements OrderService {
     private final PaymentRepository paymentRepository;
     private final PaymentService paymentService;
     private final ProductRepository productRepository;
-
+    private final DashboardStatsService dashboardStatsService;
+    private final CheckoutSessionService checkoutSessionService;
+    private final StockReservationService stockReservationService;
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository, StoreRepository storeRepository,
                             CustomerRepository customerRepository, VariantRepository variantRepository,
                             InventoryService inventoryService, DiscountRepository discountRepository,
                             PaymentRepository paymentRepository, PaymentService paymentService,
-                            ProductRepository productRepository){
+                            ProductRepository productRepository, DashboardStatsService dashboardStatsService,
+                            CheckoutSessionService checkoutSessionService, StockReservationService stockReservationService){
         this.orderRepository = orderRepository;
         this.storeRepository = storeRepository;
         this.customerRepository = customerRepository;
@@ -68,11 +85,14 @@ public class OrderServiceImpl implements OrderService {
         this.paymentRepository = paymentRepository;
         this.paymentService = paymentService;
         this.productRepository = productRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.checkoutSessionService = checkoutSessionService;
+        this.stockReservationService = stockReservationService;
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "orders", allEntries = true)
+    @CachePut(value = "orders", key = "#result.id")
     public OrderDto createOrder(OrderDto dto) {
         validateOrderInput(dto);
 
@@ -91,30 +111,7 @@ public class OrderServiceImpl implements OrderService {
         order.setShippingAddress(AddressMapper.toEntity(dto.getShippingAddress()));
         order.setStatus(OrderStatus.PAYMENT_PENDING);
 
-        dto.getOrderItems().forEach(itemDto -> {
-            OrderItem item = new OrderItem();
-            item.setQuantity(itemDto.getQuantity());
-
-            if (itemDto.getProductId() != null && itemDto.getVariantId() == null) {
-                Product product = productRepository.findById(itemDto.getProductId())
-                        .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
-                if (!inventoryService.isAvailableForProduct(product.getId(), itemDto.getQuantity())) {
-                    throw new MerchantException("Insufficient stock for product: " + product.getId(), "INSUFFICIENT_STOCK");
-                }
-                item.setProduct(product);
-            } else if (itemDto.getVariantId() != null && itemDto.getProductId() == null) {
-                Variant variant = variantRepository.findById(itemDto.getVariantId())
-                        .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-                if (!inventoryService.isAvailable(variant.getId(), itemDto.getQuantity())) {
-                    throw new MerchantException("Insufficient stock for variant: " + variant.getId(), "INSUFFICIENT_STOCK");
-                }
-                item.setVariant(variant);
-            } else {
-                throw new MerchantException("Order item must specify exactly one of productId or variantId", "INVALID_ORDER_ITEM");
-            }
-
-            order.addOrderItem(item);
-        });
+        addOrderItems(order, dto.getOrderItems());
 
         if (dto.getDiscountCode() != null) {
             Discount discount = discountRepository.findByCode(dto.getDiscountCode())
@@ -125,11 +122,14 @@ public class OrderServiceImpl implements OrderService {
         try {
             order.calculateTotals();
             Order savedOrder = orderRepository.save(order);
+            stockReservationService.hold(savedOrder);
+            dashboardStatsService.recordOrderCreated(savedOrder);
 
-            // Create payment session
+            // Stock holds, payment row and checkout outbox row; the Stripe session is created after commit
             PaymentDto paymentDto = paymentService.createPayment(savedOrder.getId());
+            checkoutSessionService.enqueue(savedOrder.getId());
 
-            logger.info("Created order {} with Stripe Checkout Session for customer {} in store {}",
+            logger.info("Created order {} with queued checkout session for customer {} in store {}",
                     savedOrder.getId(), customer.getId(), store.getId());
 
             OrderDto orderDto = OrderMapper.toDto(savedOrder);
@@ -138,6 +138,8 @@ public class OrderServiceImpl implements OrderService {
 
 
             return orderDto;
+        } catch (MerchantException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException(e);
@@ -165,12 +167,22 @@ public class OrderServiceImpl implements OrderService {
         return orders.stream().map(OrderMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<OrderDto> getOrdersByStoreIdAfter(UUID storeId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<Order> orders = orderRepository.findByStoreIdAfter(storeId, position.getCreatedAt(), position.getId(),
+                PageCursor.limit(size));
+        return PageCursor.toPage(orders, size, Order::getCreatedAt, Order::getId, OrderMapper::toDto);
+    }
+
     @Override
     @Transactional
     @CacheEvict(value = "orders", key = "#id")
     public OrderDto updateOrder(UUID id, OrderDto dto) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new MerchantException("Order not found", "ORDER_NOT_FOUND"));
+        OrderStatus previousStatus = order.getStatus();
+        Double previousAmount = order.getTotalAmount();
 
         validateOrderInput(dto);
 
@@ -196,23 +208,27 @@ public class OrderServiceImpl implements OrderService {
             order.setShippingAddress(AddressMapper.toEntity(dto.getShippingAddress()));
         }
 
-        order.getOrderItems().clear();
-        dto.getOrderItems().forEach(itemDto -> {
-            Variant variant = variantRepository.findById(itemDto.getVariantId())
-                    .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-            if (!inventoryService.isAvailable(variant.getId(), itemDto.getQuantity())) {
-                throw new MerchantException("Insufficient stock for variant: " + variant.getId(), "INSUFFICIENT_STOCK");
+        // Only a pending order's lines are still backed by holds; swap them for holds on the new lines
+        boolean linesChanged = linesChanged(order, dto.getOrderItems());
+        if (linesChanged) {
+            if (previousStatus != OrderStatus.PAYMENT_PENDING) {
+                throw new MerchantException("Order items can only change while payment is pending", "ORDER_ITEMS_LOCKED");
             }
-            OrderItem item = new OrderItem();
-            item.setVariant(variant);
-            item.setQuantity(itemDto.getQuantity());
-            order.addOrderItem(item);
-        });
+            stockReservationService.release(id);
+            order.getOrderItems().clear();
+            addOrderItems(order, dto.getOrderItems());
+        }
 
         try {
             Order updatedOrder = orderRepository.save(order);
+            if (linesChanged) {
+                stockReservationService.hold(updatedOrder);
+            }
+            dashboardStatsService.recordOrderChanged(updatedOrder, previousStatus, previousAmount);
             logger.info("Updated order with ID: {}", id);
             return OrderMapper.toDto(updatedOrder);
+        } catch (MerchantException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to update order with ID: {}", id, e);
             throw new MerchantException("Failed to update order", "ORDER_UPDATE_ERROR");
@@ -226,11 +242,11 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new MerchantException("Order not found", "ORDER_NOT_FOUND"));
 
-        order.getOrderItems().forEach(item ->
-                inventoryService.releaseStock(item.getVariant().getId(), item.getQuantity()));
+        stockReservationService.release(id);
 
         try {
             orderRepository.deleteById(id);
+            dashboardStatsService.recordOrderDeleted(order);
             logger.info("Deleted order with ID: {}", id);
         } catch (Exception e) {
             logger.error("Failed to delete order with ID: {}", id, e);
@@ -248,6 +264,7 @@ public class OrderServiceImpl implements OrderService {
         if (status == null || status.trim().isEmpty()) {
             throw new MerchantException("Status cannot be null or empty", "INVALID_STATUS");
         }
+        OrderStatus previousStatus = order.getStatus();
 
         try {
             OrderStatus nextStatus = OrderStatus.valueOf(status.toUpperCase());
@@ -259,6 +276,7 @@ public class OrderServiceImpl implements OrderService {
 
         try {
             Order updatedOrder = orderRepository.save(order);
+            dashboardStatsService.recordOrderChanged(updatedOrder, previousStatus, updatedOrder.getTotalAmount());
             logger.info("Updated status of order {} to {}", id, status);
             return OrderMapper.toDto(updatedOrder);
         } catch (Exception e) {
@@ -284,7 +302,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Transactional
-    @CacheEvict(value = "orders", allEntries = true)
+    @CachePut(value = "orders", key = "#result.id")
     @Override
     public OrderDto createOrderWithCustomerDetails(OrderDto dto) {
         validateOrderInputWithCustomerDetails(dto);
@@ -305,30 +323,7 @@ public class OrderServiceImpl implements OrderService {
         order.setShippingAddress(AddressMapper.toEntity(dto.getShippingAddress()));
         order.setStatus(OrderStatus.PAYMENT_PENDING);
 
-        dto.getOrderItems().forEach(itemDto -> {
-            OrderItem item = new OrderItem();
-            item.setQuantity(itemDto.getQuantity());
-
-            if (itemDto.getProductId() != null && itemDto.getVariantId() == null) {
-                Product product = productRepository.findById(itemDto.getProductId())
-                        .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
-                if (!inventoryService.isAvailableForProduct(product.getId(), itemDto.getQuantity())) {
-                    throw new MerchantException("Insufficient stock for product: " + product.getId(), "INSUFFICIENT_STOCK");
-                }
-                item.setProduct(product);
-            } else if (itemDto.getVariantId() != null && itemDto.getProductId() == null) {
-                Variant variant = variantRepository.findById(itemDto.getVariantId())
-                        .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-                if (!inventoryService.isAvailable(variant.getId(), itemDto.getQuantity())) {
-                    throw new MerchantException("Insufficient stock for variant: " + variant.getId(), "INSUFFICIENT_STOCK");
-                }
-                item.setVariant(variant);
-            } else {
-                throw new MerchantException("Order item must specify exactly one of productId or variantId", "INVALID_ORDER_ITEM");
-            }
-
-            order.addOrderItem(item);
-        });
+        addOrderItems(order, dto.getOrderItems());
 
         if (dto.getDiscountCode() != null) {
             Discount discount = discountRepository.findByCode(dto.getDiscountCode())
@@ -339,10 +334,13 @@ public class OrderServiceImpl implements OrderService {
         try {
             order.calculateTotals();
             Order savedOrder = orderRepository.save(order);
+            stockReservationService.hold(savedOrder);
+            dashboardStatsService.recordOrderCreated(savedOrder);
 
-            // Create payment session
+            // Stock holds, payment row and checkout outbox row; the Stripe session is created after commit
             PaymentDto paymentDto = paymentService.createPayment(savedOrder.getId());
-            
+            checkoutSessionService.enqueue(savedOrder.getId());
+
             // Get the payment entity and set it on the order
             Payment payment = paymentRepository.findById(paymentDto.getId())
                     .orElseThrow(() -> new MerchantException("Payment not found", "PAYMENT_NOT_FOUND"));
@@ -352,12 +350,93 @@ public class OrderServiceImpl implements OrderService {
             OrderDto orderDto = OrderMapper.toDto(savedOrder);
             orderDto.setPaymentId(paymentDto.getId());
             return orderDto;
+        } catch (MerchantException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to create order: {}", e.getMessage());
             throw new RuntimeException("Order creation failed", e);
         }
     }
 
+    // Resolves every referenced product and variant (with SKU and inventory) in one query each,
+    // then checks availability against that snapshot instead of querying per line item
+    private void addOrderItems(Order order, List<OrderItemDto> itemDtos) {
+        Set<UUID> productIds = new HashSet<>();
+        Set<UUID> variantIds = new HashSet<>();
+        for (OrderItemDto itemDto : itemDtos) {
+            if (itemDto.getQuantity() == null || itemDto.getQuantity() <= 0) {
+                throw new MerchantException("Order item quantity must be positive", "INVALID_QUANTITY");
+            }
+            if (itemDto.getProductId() != null && itemDto.getVariantId() == null) {
+                productIds.add(itemDto.getProductId());
+            } else if (itemDto.getVariantId() != null && itemDto.getProductId() == null) {
+                variantIds.add(itemDto.getVariantId());
+            } else {
+                throw new MerchantException("Order item must specify exactly one of productId or variantId", "INVALID_ORDER_ITEM");
+            }
+        }
+
+        Map<UUID, Product> products = productIds.isEmpty() ? Map.of() :
+                productRepository.findAllWithInventoryByIdIn(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<UUID, Variant> variants = variantIds.isEmpty() ? Map.of() :
+                variantRepository.findAllWithInventoryByIdIn(variantIds).stream()
+                        .collect(Collectors.toMap(Variant::getId, Function.identity()));
+
+        // Lines referencing the same product or variant draw from the same stock
+        Map<UUID, Integer> requested = new HashMap<>();
+        for (OrderItemDto itemDto : itemDtos) {
+            OrderItem item = new OrderItem();
+            item.setQuantity(itemDto.getQuantity());
+
+            if (itemDto.getProductId() != null) {
+                Product product = products.get(itemDto.getProductId());
+                if (product == null) {
+                    throw new MerchantException("Product not found", "PRODUCT_NOT_FOUND");
+                }
+                int total = requested.merge(product.getId(), itemDto.getQuantity(), Integer::sum);
+                if (!hasStock(product.getSku(), total)) {
+                    throw new MerchantException("Insufficient stock for product: " + product.getId(), "INSUFFICIENT_STOCK");
+                }
+                item.setProduct(product);
+            } else {
+                Variant variant = variants.get(itemDto.getVariantId());
+                if (variant == null) {
+                    throw new MerchantException("Variant not found", "VARIANT_NOT_FOUND");
+                }
+                int total = requested.merge(variant.getId(), itemDto.getQuantity(), Integer::sum);
+                if (!hasStock(variant.getSku(), total)) {
+                    throw new MerchantException("Insufficient stock for variant: " + variant.getId(), "INSUFFICIENT_STOCK");
+                }
+                item.setVariant(variant);
+            }
+
+            order.addOrderItem(item);
+        }
+    }
+
+    private static boolean linesChanged(Order order, List<OrderItemDto> itemDtos) {
+        Map<UUID, Integer> current = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            UUID key = item.getVariant() != null ? item.getVariant().getId() : item.getProduct().getId();
+            current.merge(key, item.getQuantity(), Integer::sum);
+        }
+        Map<UUID, Integer> requested = new HashMap<>();
+        for (OrderItemDto itemDto : itemDtos) {
+            UUID key = itemDto.getVariantId() != null ? itemDto.getVariantId() : itemDto.getProductId();
+            if (key == null || itemDto.getQuantity() == null) {
+                return true;
+            }
+            requested.merge(key, itemDto.getQuantity(), Integer::sum);
+        }
+        return !current.equals(requested);
+    }
+
+    private boolean hasStock(SKU sku, int quantity) {
+        Inventory inventory = sku != null ? sku.getInventory() : null;
+        return inventory != null && inventory.getStockQuantity() >= quantity;
+    }
+
     // Updated validation method for the new service method
     private void validateOrderInputWithCustomerDetails(OrderDto dto) {
         if (dto.getStoreId() == null) throw new MerchantException("Store ID cannot be null", "INVALID_STORE_ID");
@@ -10,13 +10,17 @@ import com.sokoby.enums.SubscriptionStatus;
 import com.sokoby.exception.MerchantException;
 import com.sokoby.mapper.PaymentMapper;
 import com.sokoby.mapper.SubscriptionMapper;
+import com.sokoby.payload.CheckoutSessionDto;
 import com.sokoby.payload.PaymentDto;
 import com.sokoby.payload.SubscriptionDto;
 import com.sokoby.repository.MerchantRepository;
 import com.sokoby.repository.OrderRepository;
 import com.sokoby.repository.PaymentRepository;
 import com.sokoby.repository.SubscriptionRepository;
+import com.sokoby.service.CheckoutSessionService;
+import com.sokoby.service.DashboardStatsService;
 import com.sokoby.service.PaymentService;
+import com.sokoby.service.StockReservationService;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Invoice;
@@ -27,9 +31,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -56,15 +63,28 @@ import java.util.stream.Collectors;
 
         private final String stripeSecretKey;
         private final SubscriptionRepository subscriptionRepository;
+        private final DashboardStatsService dashboardStatsService;
+        private final CacheManager cacheManager;
+        private final CheckoutSessionService checkoutSessionService;
+        private final StockReservationService stockReservationService;
+
+        @Value("${app.checkout.wait:10s}")
+        private Duration checkoutWait;
 
         @Autowired
         public PaymentServiceImpl(PaymentRepository paymentRepository, OrderRepository orderRepository, MerchantRepository merchantRepository,
-                                  @Value("${stripe.secret.key}") String stripeSecretKey, SubscriptionRepository subscriptionRepository) {
+                                  @Value("${stripe.secret.key}") String stripeSecretKey, SubscriptionRepository subscriptionRepository,
+                                  DashboardStatsService dashboardStatsService, CacheManager cacheManager,
+                                  CheckoutSessionService checkoutSessionService, StockReservationService stockReservationService) {
             this.paymentRepository = paymentRepository;
             this.orderRepository = orderRepository;
             this.merchantRepository = merchantRepository;
             this.stripeSecretKey = stripeSecretKey;
             this.subscriptionRepository = subscriptionRepository;
+            this.dashboardStatsService = dashboardStatsService;
+            this.cacheManager = cacheManager;
+            this.checkoutSessionService = checkoutSessionService;
+            this.stockReservationService = stockReservationService;
             logger.info("Stripe secret key injected: {}", stripeSecretKey); // Log for debugging (mask in production)
             if (stripeSecretKey == null || stripeSecretKey.trim().isEmpty()) {
                 throw new IllegalArgumentException("Stripe secret key is not configured in application.properties");
@@ -73,51 +93,15 @@ import java.util.stream.Collectors;
             logger.info("Stripe API key set successfully");
         }
 
-        @Transactional
+        // Session creation runs in CheckoutSessionService outside any transaction; this only waits briefly for it
         @Override
         public String createPaymentSession(UUID orderId) {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new MerchantException("Order not found", "ORDER_NOT_FOUND"));
+            return checkoutSessionService.awaitSessionUrl(orderId, checkoutWait);
+        }
 
-            try {
-                if (Stripe.apiKey == null || Stripe.apiKey.trim().isEmpty()) {
-                    Stripe.apiKey = stripeSecretKey; // Re-set if necessary
-                    logger.warn("Stripe API key was null; reset to injected value");
-                }
-
-                SessionCreateParams params = SessionCreateParams.builder()
-                        .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
-                        .setMode(SessionCreateParams.Mode.PAYMENT)
-                        .setSuccessUrl(successUrl + order.getStore().getId()+ "/order-success" + "?orderId=" + order.getId())
-                        .setCancelUrl(cancelUrl + "?orderId=" + order.getId())
-                        .addLineItem(
-                                SessionCreateParams.LineItem.builder()
-                                        .setPriceData(
-                                                SessionCreateParams.LineItem.PriceData.builder()
-                                                        .setCurrency("usd")
-                                                        .setUnitAmount((long) (order.getTotalAmount() * 100))
-                                                        .setProductData(
-                                                                SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                                                        .setName("Order #" + order.getId())
-                                                                        .build()
-                                                        )
-                                                        .build()
-                                        )
-                                        .setQuantity(1L)
-                                        .build()
-                        )
-                        .build();
-
-                Session session = Session.create(params);
-                Payment payment = paymentRepository.findByOrderId(orderId).orElseThrow(()->new MerchantException("Order Not Found", "ORDER_NOT_FOUND"));
-                payment.setStripePaymentIntentId(session.getPaymentIntent());
-                payment.setStripeCheckoutSessionId(session.getId());
-                logger.info("Checkout session created for order {}: {}", orderId, session.getUrl());
-                return session.getUrl();
-            } catch (StripeException e) {
-                logger.error("Stripe payment error for order {}: {}", orderId, e.getMessage());
-                throw new MerchantException("Payment processing failed: " + e.getMessage(), "PAYMENT_PROCESSING_ERROR");
-            }
+        @Override
+        public CheckoutSessionDto getCheckoutStatus(UUID orderId) {
+            return checkoutSessionService.getStatus(orderId);
         }
 
         @Override
@@ -169,7 +153,11 @@ import java.util.stream.Collectors;
         paymentRepository.save(payment);
 
         Order order = orderRepository.findByPaymentId(payment.getId()).orElseThrow(() -> new MerchantException("Order not found for payment", "ORDER_NOT_FOUND"));
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.PLACED);
+        stockReservationService.convert(order);
+        dashboardStatsService.recordOrderChanged(order, previousStatus, order.getTotalAmount());
+        evictCachedOrder(order.getId());
         logger.info("Payment confirmed for session {}", sessionId);
 
         return PaymentMapper.toDto(payment);
@@ -191,9 +179,12 @@ import java.util.stream.Collectors;
             // Update order status
             if (payment.getOrder() != null) {
                 Order order = payment.getOrder();
+                OrderStatus previousStatus = order.getStatus();
                 order.setStatus(OrderStatus.PAYMENT_FAILED);
                 orderRepository.save(order);
-
+                stockReservationService.release(order.getId());
+                dashboardStatsService.recordOrderChanged(order, previousStatus, order.getTotalAmount());
+                evictCachedOrder(order.getId());
             }
 
             logger.info("Payment marked as failed for payment intent: {}", paymentIntentId);
@@ -204,8 +195,12 @@ import java.util.stream.Collectors;
 
             if (orderOpt.isPresent()) {
                 Order order = orderOpt.get();
+                OrderStatus previousStatus = order.getStatus();
                 order.setStatus(OrderStatus.PAYMENT_FAILED);
                 orderRepository.save(order);
+                stockReservationService.release(order.getId());
+                dashboardStatsService.recordOrderChanged(order, previousStatus, order.getTotalAmount());
+                evictCachedOrder(order.getId());
 
                 // Create a new payment record for the failed attempt
                 Payment payment = new Payment();
@@ -219,6 +214,15 @@ import java.util.stream.Collectors;
             logger.warn("Could not find payment or order for failed payment intent: {}", paymentIntentId);
         }
     }
+
+    // Order status changes made here bypass OrderService, so drop the cached copy explicitly; the
+    // transaction-aware cache manager holds the eviction until the payment transaction commits
+    private void evictCachedOrder(UUID orderId) {
+        Cache orders = cacheManager.getCache("orders");
+        if (orders != null) {
+            orders.evict(orderId);
+        }
+    }
     @Transactional
     @Override
     public SubscriptionDto createSubscriptionSession(SubscriptionDto subscriptionDto) {
@@ -1,9 +1,12 @@
 package com.sokoby.service.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -27,11 +30,16 @@ import com.sokoby.entity.Store;
 import com.sokoby.entity.Variant;
 import com.sokoby.enums.CollectionType;
 import com.sokoby.exception.MerchantException;
+import com.sokoby.mapper.CollectionMapper;
 import com.sokoby.mapper.ProductCreationMapper;
+import com.sokoby.mapper.ProductImageMapper;
 import com.sokoby.mapper.ProductMapper;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.ImageDto;
 import com.sokoby.payload.ProductCreationDto;
 import com.sokoby.payload.ProductDto;
+import com.sokoby.payload.ProductSuggestionDto;
+import com.sokoby.payload.ProductSummaryDto;
 import com.sokoby.repository.CollectionRepository;
 import com.sokoby.repository.InventoryRepository;
 import com.sokoby.repository.ProductRepository;
@@ -39,7 +47,12 @@ import com.sokoby.repository.SKURepository;
 import com.sokoby.repository.StoreRepository;
 import com.sokoby.repository.VariantRepository;
 import com.sokoby.service.ImageService;
+import com.sokoby.service.ImageUploadService;
+import com.sokoby.service.InventoryService;
+import com.sokoby.service.ProductSearchIndex;
 import com.sokoby.service.ProductService;
+import com.sokoby.util.FullTextSearch;
+import com.sokoby.util.PageCursor;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -52,9 +65,12 @@ public class ProductServiceImpl implements ProductService {
     private final CollectionRepository collectionRepository;
     private final InventoryRepository inventoryRepository;
     private final SKURepository skuRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ImageUploadService imageUploadService;
+    private final InventoryService inventoryService;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, StoreRepository storeRepository, ImageService imageService, VariantRepository variantRepository, CollectionRepository collectionRepository, InventoryRepository inventoryRepository, SKURepository skuRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, StoreRepository storeRepository, ImageService imageService, VariantRepository variantRepository, CollectionRepository collectionRepository, InventoryRepository inventoryRepository, SKURepository skuRepository, ProductSearchIndex productSearchIndex, ImageUploadService imageUploadService, InventoryService inventoryService) {
         this.productRepository = productRepository;
         this.storeRepository = storeRepository;
         this.imageService = imageService;
@@ -62,12 +78,18 @@ public class ProductServiceImpl implements ProductService {
         this.collectionRepository = collectionRepository;
         this.inventoryRepository = inventoryRepository;
         this.skuRepository = skuRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.imageUploadService = imageUploadService;
+        this.inventoryService = inventoryService;
     }
 
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
+    @Value("${app.search.full-text-enabled:true}")
+    private boolean fullTextSearchEnabled;
+
     @Override
     public ProductDto createProduct(UUID storeId, ProductDto dto) {
         if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
@@ -82,6 +104,7 @@ public class ProductServiceImpl implements ProductService {
 
         try {
             Product savedProduct = productRepository.save(product);
+            productSearchIndex.index(savedProduct);
             logger.info("Created product {} for store {}", dto.getTitle(), storeId);
             return ProductMapper.toDto(savedProduct);
         } catch (Exception e) {
@@ -114,7 +137,9 @@ public class ProductServiceImpl implements ProductService {
 
         Page<Product> productPage = (query == null || query.trim().isEmpty())
                 ? productRepository.findAll(pageable)
-                : productRepository.searchProducts(query, pageable);
+                : FullTextSearch.search(query, pageable, fullTextSearchEnabled,
+                        productRepository::fullTextSearchProducts,
+                        () -> productRepository.searchProducts(query, pageable));
 
         if (productPage.isEmpty()) {
             logger.warn("No products found for query: {}", query);
@@ -133,13 +158,77 @@ public class ProductServiceImpl implements ProductService {
             // Use paginated findByStoreId when no query is provided
             productPage = productRepository.findByStoreId(storeId, pageable);
         } else {
-            // Use searchProductsByStore for query-based search
-            productPage = productRepository.searchProductsByStore(storeId, query, pageable);
+            // Ranked full-text search, falling back to searchProductsByStore
+            productPage = FullTextSearch.search(query, pageable, fullTextSearchEnabled,
+                    (tsQuery, ranked) -> productRepository.fullTextSearchProductsByStore(storeId, tsQuery, ranked),
+                    () -> productRepository.searchProductsByStore(storeId, query, pageable));
         }
 
         return mapToDtoPage(productPage);
     }
 
+    @Override
+    public CursorPage<ProductDto> searchProductsAfter(String query, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<Product> products = productRepository.searchProductsAfter(normalizeQuery(query),
+                position.getCreatedAt(), position.getId(), PageCursor.limit(size));
+        return PageCursor.toPage(products, size, Product::getCreatedAt, Product::getId, ProductMapper::toDto);
+    }
+
+    @Override
+    public CursorPage<ProductDto> searchProductsByStoreAfter(UUID storeId, String query, String cursor, int size) {
+        if (!storeRepository.existsById(storeId)) {
+            throw new MerchantException("Store not found", "STORE_NOT_FOUND");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        List<Product> products = productRepository.searchProductsByStoreAfter(storeId, normalizeQuery(query),
+                position.getCreatedAt(), position.getId(), PageCursor.limit(size));
+        return PageCursor.toPage(products, size, Product::getCreatedAt, Product::getId, ProductMapper::toDto);
+    }
+
+    @Override
+    public CursorPage<ProductSummaryDto> listProducts(String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<ProductSummaryDto> rows = productRepository.findSummariesAfter(position.getCreatedAt(), position.getId(),
+                PageCursor.limit(size));
+        return toSummaryPage(rows, size);
+    }
+
+    @Override
+    public CursorPage<ProductSummaryDto> listProductsByStore(UUID storeId, String cursor, int size) {
+        if (!storeRepository.existsById(storeId)) {
+            throw new MerchantException("Store not found", "STORE_NOT_FOUND");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        List<ProductSummaryDto> rows = productRepository.findSummariesByStoreIdAfter(storeId, position.getCreatedAt(),
+                position.getId(), PageCursor.limit(size));
+        return toSummaryPage(rows, size);
+    }
+
+    private CursorPage<ProductSummaryDto> toSummaryPage(List<ProductSummaryDto> rows, int size) {
+        CursorPage<ProductSummaryDto> page = PageCursor.toPage(rows, size, ProductSummaryDto::getCreatedAt,
+                ProductSummaryDto::getId, Function.identity());
+        if (page.getItems().isEmpty()) {
+            return page;
+        }
+        Map<UUID, ProductSummaryDto> byId = page.getItems().stream()
+                .collect(Collectors.toMap(ProductSummaryDto::getId, Function.identity()));
+        for (Object[] row : productRepository.findCollectionsByProductIdIn(byId.keySet())) {
+            byId.get((UUID) row[0]).getCollections().add(CollectionMapper.toDto((Collection) row[1]));
+        }
+        return page;
+    }
+
+    // An empty pattern matches every row, which keeps the keyset queries free of optional predicates
+    private String normalizeQuery(String query) {
+        return query == null ? "" : query.trim();
+    }
+
+    @Override
+    public List<ProductSuggestionDto> autocomplete(UUID storeId, String query, int limit) {
+        return productSearchIndex.suggest(storeId, query, Math.min(limit, 50));
+    }
+
     private Page<ProductDto> mapToDtoPage(Page<Product> productPage) {
         List<ProductDto> dtos = productPage.getContent()
                 .stream()
@@ -161,6 +250,7 @@ public class ProductServiceImpl implements ProductService {
         }
         try {
             Product updatedProduct = productRepository.save(product);
+            productSearchIndex.index(updatedProduct);
             logger.info("Updated product with ID: {}", id);
             return ProductMapper.toDto(updatedProduct);
         } catch (Exception e) {
@@ -176,6 +266,7 @@ public class ProductServiceImpl implements ProductService {
         }
         try {
             productRepository.deleteById(id);
+            productSearchIndex.remove(id);
             logger.info("Deleted product with ID: {}", id);
         } catch (Exception e) {
             logger.error("Failed to delete product with ID: {}", id, e);
@@ -200,20 +291,15 @@ public class ProductServiceImpl implements ProductService {
 
         try {
             Product savedProduct = productRepository.save(product);
-            List<ImageDto> imageDto = new ArrayList<>();
-            if (files != null && files.length > 0) {
-                for (MultipartFile file : files) {
-                    ImageDto dto1 = imageService.uploadImageFile(file, bucketName, savedProduct.getId());
-                    imageDto.add(dto1);
-                }
-            }
-                logger.info("Created product {} for store {}", dto.getTitle(), storeId);
-                return ProductMapper.toDtoWithImageDto(savedProduct, imageDto);
-
-            } catch(Exception e){
-                logger.error("Failed to create product for store {}: {}", storeId, e.getMessage());
-                throw new MerchantException("Failed to create product", "PRODUCT_CREATION_ERROR");
-            }
+            List<ImageDto> imageDto = imageUploadService.uploadProductImages(savedProduct, toList(files), bucketName)
+                    .stream().map(ProductImageMapper::toDto).collect(Collectors.toList());
+            productSearchIndex.index(savedProduct);
+            logger.info("Created product {} for store {}", dto.getTitle(), storeId);
+            return ProductMapper.toDtoWithImageDto(savedProduct, imageDto);
+        } catch (Exception e) {
+            logger.error("Failed to create product for store {}: {}", storeId, e.getMessage());
+            throw new MerchantException("Failed to create product", "PRODUCT_CREATION_ERROR");
+        }
     }
 
     @Override
@@ -245,8 +331,7 @@ public class ProductServiceImpl implements ProductService {
             sku = skuRepository.save(sku);
             product.setSku(sku);
             if (dto.getStockQuantity() != null) {
-                Inventory inventory = ProductCreationMapper.toInventoryEntity(sku, dto.getStockQuantity());
-                inventory = inventoryRepository.save(inventory);
+                Inventory inventory = inventoryService.createInventory(sku, dto.getStockQuantity());
                 product.setInventory(inventory);
             }
         }
@@ -261,8 +346,7 @@ public class ProductServiceImpl implements ProductService {
                 variant.setSku(variantSku);
                 variant = variantRepository.save(variant);
                 if (variantDto.getStockQuantity() != null) {
-                    Inventory inventory = ProductCreationMapper.toInventoryEntity(variantSku, variantDto.getStockQuantity());
-                    inventory = inventoryRepository.save(inventory);
+                    Inventory inventory = inventoryService.createInventory(variantSku, variantDto.getStockQuantity());
                     variant.setInventoryItem(inventory);
                     variantRepository.save(variant);
                     variantDto.setStockQuantity(inventory.getStockQuantity());
@@ -294,17 +378,13 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // Handle Images (optional)
-        List<ImageDto> imageDtos = new ArrayList<>();
-        if (files != null && files.length > 0) {
-            for (MultipartFile file : files) {
-                ImageDto imageDto = imageService.uploadImageFile(file, bucketName, product.getId());
-                product.getProductImages().add(ProductCreationMapper.toProductImageEntity(product, imageDto));
-                imageDtos.add(imageDto);
-            }
-        }
+        List<ProductImage> uploadedImages = imageUploadService.uploadProductImages(product, toList(files), bucketName);
+        product.getProductImages().addAll(uploadedImages);
+        List<ImageDto> imageDtos = uploadedImages.stream().map(ProductImageMapper::toDto).collect(Collectors.toList());
 
         // Save product with all relationships
         productRepository.save(product);
+        productSearchIndex.index(product);
 
         // Prepare response DTO with all details
         ProductCreationDto responseDto = ProductCreationMapper.toDto(product, variantDtos, collectionDto, imageDtos);
@@ -316,19 +396,13 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductCreationDto getProductById(UUID productId) {
         // Fetch product with all relationships
-        Product product = productRepository.findById(productId)
+        Product product = productRepository.findDetailById(productId)
                 .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
 
         // Create a list of unique images to prevent duplicates
         List<ImageDto> uniqueImageDtos = product.getProductImages() != null 
             ? product.getProductImages().stream()
-                .map(image -> {
-                    ImageDto imageDto = new ImageDto();
-                    imageDto.setId(image.getId());
-                    imageDto.setImageUrl(image.getImageUrl());
-                    imageDto.setProductId(product.getId());
-                    return imageDto;
-                })
+                .map(ProductImageMapper::toDto)
                 .collect(Collectors.toList())
             : new ArrayList<>();
 
@@ -359,7 +433,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductCreationDto updateProductWithDetails(UUID productId, ProductCreationDto dto, MultipartFile[] files) {
         // Fetch existing product
-        Product product = productRepository.findById(productId)
+        Product product = productRepository.findForEditById(productId)
                 .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
 
         // Validate mandatory fields if provided
@@ -403,12 +477,10 @@ public class ProductServiceImpl implements ProductService {
                 if (dto.getStockQuantity() != null) {
                     Inventory inventory = product.getInventory();
                     if (inventory == null) {
-                        inventory = ProductCreationMapper.toInventoryEntity(sku, dto.getStockQuantity());
-                        inventory = inventoryRepository.save(inventory);
+                        inventory = inventoryService.createInventory(sku, dto.getStockQuantity());
                         product.setInventory(inventory);
                     } else {
-                        inventory.setStockQuantity(dto.getStockQuantity());
-                        inventoryRepository.save(inventory);
+                        inventoryService.setStock(inventory, dto.getStockQuantity());
                     }
                 }
             } else {
@@ -469,12 +541,10 @@ public class ProductServiceImpl implements ProductService {
                 if (variantDto.getStockQuantity() != null) {
                     Inventory inventory = variant.getInventoryItem();
                     if (inventory == null) {
-                        inventory = ProductCreationMapper.toInventoryEntity(variant.getSku(), variantDto.getStockQuantity());
-                        inventory = inventoryRepository.save(inventory);
+                        inventory = inventoryService.createInventory(variant.getSku(), variantDto.getStockQuantity());
                         variant.setInventoryItem(inventory);
                     } else {
-                        inventory.setStockQuantity(variantDto.getStockQuantity());
-                        inventoryRepository.save(inventory);
+                        inventoryService.setStock(inventory, variantDto.getStockQuantity());
                     }
                 }
                 variantDto.setId(variant.getId());
@@ -527,26 +597,22 @@ public class ProductServiceImpl implements ProductService {
 
         // Add new images (append to existing)
         if (files != null && files.length > 0) {
-            for (MultipartFile file : files) {
-                ImageDto imageDto = imageService.uploadImageFile(file, bucketName, product.getId());
-                ProductImage newImage = ProductCreationMapper.toProductImageEntity(product, imageDto);
-                existingImages.add(newImage);
-                imageDtos.add(imageDto);
+            List<ProductImage> uploadedImages = imageUploadService.uploadProductImages(product, toList(files), bucketName);
+            existingImages.addAll(uploadedImages);
+            for (ProductImage image : uploadedImages) {
+                imageDtos.add(ProductImageMapper.toDto(image));
             }
             product.setProductImages(existingImages);
         } else {
             // Include remaining existing images in the response
             imageDtos = existingImages.stream()
-                    .map(image -> {
-                        ImageDto imageDto = new ImageDto();
-                        imageDto.setImageUrl(image.getImageUrl());
-                        return imageDto;
-                    })
+                    .map(ProductImageMapper::toDto)
                     .collect(Collectors.toList());
         }
 
         // Save updated product with all relationships
         productRepository.save(product);
+        productSearchIndex.index(product);
 
         // Prepare response DTO
         ProductCreationDto responseDto = ProductCreationMapper.toDto(product, variantDtos, collectionDto, imageDtos);
@@ -592,7 +658,7 @@ public class ProductServiceImpl implements ProductService {
             }
 
             // Fetch existing product
-            Product product = productRepository.findById(productId)
+            Product product = productRepository.findForEditById(productId)
                     .orElseThrow(() -> new MerchantException("Product not found", "PRODUCT_NOT_FOUND"));
 
             // Update basic product fields if provided
@@ -621,12 +687,10 @@ public class ProductServiceImpl implements ProductService {
                 if (dto.getStockQuantity() != null) {
                     Inventory inventory = product.getInventory();
                     if (inventory == null) {
-                        inventory = ProductCreationMapper.toInventoryEntity(sku, dto.getStockQuantity());
-                        inventory = inventoryRepository.save(inventory);
+                        inventory = inventoryService.createInventory(sku, dto.getStockQuantity());
                         product.setInventory(inventory);
                     } else {
-                        inventory.setStockQuantity(dto.getStockQuantity());
-                        inventoryRepository.save(inventory);
+                        inventoryService.setStock(inventory, dto.getStockQuantity());
                     }
                 }
             }
@@ -655,12 +719,10 @@ public class ProductServiceImpl implements ProductService {
                     if (variantDto.getStockQuantity() != null) {
                         Inventory inventory = variant.getInventoryItem();
                         if (inventory == null) {
-                            inventory = ProductCreationMapper.toInventoryEntity(variant.getSku(), variantDto.getStockQuantity());
-                            inventory = inventoryRepository.save(inventory);
+                            inventory = inventoryService.createInventory(variant.getSku(), variantDto.getStockQuantity());
                             variant.setInventoryItem(inventory);
                         } else {
-                            inventory.setStockQuantity(variantDto.getStockQuantity());
-                            inventoryRepository.save(inventory);
+                            inventoryService.setStock(inventory, variantDto.getStockQuantity());
                         }
                     }
                     updatedVariants.add(variant);
@@ -692,16 +754,13 @@ public class ProductServiceImpl implements ProductService {
 
             // Add new images (append to existing)
             if (newImages != null && !newImages.isEmpty()) {
-                for (MultipartFile file : newImages) {
-                    ImageDto imageDto = imageService.uploadImageFile(file, bucketName, product.getId());
-                    ProductImage newImage = ProductCreationMapper.toProductImageEntity(product, imageDto);
-                    existingImages.add(newImage);
-                }
+                existingImages.addAll(imageUploadService.uploadProductImages(product, newImages, bucketName));
                 product.setProductImages(existingImages);
             }
 
             // Save updated product with all relationships
             productRepository.save(product);
+            productSearchIndex.index(product);
 
             // Return basic product DTO
             return ProductMapper.toDto(product);
@@ -710,4 +769,8 @@ public class ProductServiceImpl implements ProductService {
             throw new MerchantException("Failed to update product", "PRODUCT_UPDATE_ERROR");
         }
     }
+
+    private static List<MultipartFile> toList(MultipartFile[] files) {
+        return files == null ? List.of() : Arrays.asList(files);
+    }
 }
@@ -9,6 +9,7 @@ import com.sokoby.repository.MerchantRepository;
 import com.sokoby.repository.StoreRepository;
 import com.sokoby.service.ImageService;
 import com.sokoby.service.StoreService;
+import com.sokoby.util.FullTextSearch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,9 @@ public class StoreServiceImpl implements StoreService {
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
+    @Value("${app.search.full-text-enabled:true}")
+    private boolean fullTextSearchEnabled;
+
     @Autowired
     public StoreServiceImpl(StoreRepository storeRepository, MerchantRepository merchantRepository, ImageService imageService) {
         this.storeRepository = storeRepository;
@@ -89,7 +93,9 @@ public class StoreServiceImpl implements StoreService {
     @Override
     public Page<StoreDto> searchStores(String query, Pageable pageable) {
 
-        Page<Store> storePage = storeRepository.searchStores(query, pageable);
+        Page<Store> storePage = FullTextSearch.search(query, pageable, fullTextSearchEnabled,
+                storeRepository::fullTextSearchStores,
+                () -> storeRepository.searchStores(query, pageable));
         if (storePage.isEmpty()) {
             logger.warn("No stores found for query: {}", query);
         }
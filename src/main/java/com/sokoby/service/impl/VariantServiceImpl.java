@@ -4,15 +4,20 @@ import com.sokoby.entity.Inventory;
 import com.sokoby.entity.Product;
 import com.sokoby.entity.SKU;
 import com.sokoby.entity.Variant;
+import com.sokoby.enums.StockMovementReason;
 import com.sokoby.exception.MerchantException;
 import com.sokoby.mapper.InventoryMapper;
 import com.sokoby.mapper.VariantMapper;
+import com.sokoby.payload.CursorPage;
 import com.sokoby.payload.VariantDto;
 import com.sokoby.repository.InventoryRepository;
 import com.sokoby.repository.ProductRepository;
 import com.sokoby.repository.SKURepository;
 import com.sokoby.repository.VariantRepository;
+import com.sokoby.service.InventoryService;
+import com.sokoby.service.ProductSearchIndex;
 import com.sokoby.service.VariantService;
+import com.sokoby.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -31,17 +36,23 @@ public class VariantServiceImpl implements VariantService {
     private final ProductRepository productRepository;
     private final SKURepository skuRepository;
     private final InventoryRepository inventoryRepository;
+    private final InventoryService inventoryService;
+    private final ProductSearchIndex productSearchIndex;
 
     @Autowired
     public VariantServiceImpl(
             VariantRepository variantRepository,
             ProductRepository productRepository,
             SKURepository skuRepository,
-            InventoryRepository inventoryRepository) {
+            InventoryRepository inventoryRepository,
+            InventoryService inventoryService,
+            ProductSearchIndex productSearchIndex) {
         this.variantRepository = variantRepository;
         this.productRepository = productRepository;
         this.skuRepository = skuRepository;
         this.inventoryRepository = inventoryRepository;
+        this.inventoryService = inventoryService;
+        this.productSearchIndex = productSearchIndex;
     }
 
     @Override
@@ -55,10 +66,12 @@ public class VariantServiceImpl implements VariantService {
 
         Variant variant = VariantMapper.toEntity(dto, product, sku);
         variant = variantRepository.save(variant);
+        // Variant names are searchable, so the owning product is re-indexed with the new variant
+        product.getVariants().add(variant);
+        productSearchIndex.index(product);
 
         if (dto.getStockQuantity() != null) {
-            Inventory inventory = InventoryMapper.toEntity(sku, dto.getStockQuantity());
-            inventoryRepository.save(inventory);
+            inventoryService.createInventory(sku, dto.getStockQuantity());
         }
 
         Integer stockQuantity = inventoryRepository.findBySku(sku)
@@ -98,6 +111,15 @@ public class VariantServiceImpl implements VariantService {
         return variantDto;
     }
 
+    @Override
+    public CursorPage<VariantDto> searchVariantsAfter(String query, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        List<Variant> variants = variantRepository.searchVariantsAfter(query == null ? "" : query.trim(),
+                position.getCreatedAt(), position.getId(), PageCursor.limit(size));
+        return PageCursor.toPage(variants, size, Variant::getCreatedAt, Variant::getId,
+                v -> VariantMapper.toDto(v, v.getInventoryItem() != null ? v.getInventoryItem().getStockQuantity() : null));
+    }
+
     @Override
     public Page<VariantDto> searchVariantsByProduct(UUID productId, String query, Pageable pageable) {
         List<Variant> variants = variantRepository.findByProductId(productId);
@@ -128,12 +150,12 @@ public class VariantServiceImpl implements VariantService {
             variant.setPrice(dto.getPrice());
         }
         variantRepository.save(variant);
+        productSearchIndex.index(variant.getProduct());
 
         if (dto.getStockQuantity() != null) {
             Inventory inventory = inventoryRepository.findBySku(sku)
                     .orElseGet(() -> InventoryMapper.toEntity(sku, 0));
-            inventory.setStockQuantity(dto.getStockQuantity());
-            inventoryRepository.save(inventory);
+            inventoryService.setStock(inventory, dto.getStockQuantity());
         }
 
         Integer stockQuantity = inventoryRepository.findBySku(sku)
@@ -149,7 +171,10 @@ public class VariantServiceImpl implements VariantService {
                 .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
         inventoryRepository.findBySku(variant.getSku()).ifPresent(inventoryRepository::delete);
         skuRepository.delete(variant.getSku());
+        Product product = variant.getProduct();
+        product.getVariants().remove(variant);
         variantRepository.delete(variant);
+        productSearchIndex.index(product);
     }
 
     @Override
@@ -157,12 +182,11 @@ public class VariantServiceImpl implements VariantService {
     public void reduceStock(UUID id, int quantity) {
         Variant variant = variantRepository.findById(id)
                 .orElseThrow(() -> new MerchantException("Variant not found", "VARIANT_NOT_FOUND"));
-        Inventory inventory = inventoryRepository.findBySku(variant.getSku())
-                .orElseThrow(() -> new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND"));
-        if (inventory.getStockQuantity() < quantity) {
+        if (!inventoryRepository.existsBySku(variant.getSku())) {
+            throw new MerchantException("Inventory not found", "INVENTORY_NOT_FOUND");
+        }
+        if (!inventoryService.deductForSku(variant.getSku().getId(), quantity, StockMovementReason.ADJUSTMENT, null)) {
             throw new MerchantException("Insufficient stock", "INSUFFICIENT_STOCK");
         }
-        inventory.setStockQuantity(inventory.getStockQuantity() - quantity);
-        inventoryRepository.save(inventory);
     }
 }
\ No newline at end of file
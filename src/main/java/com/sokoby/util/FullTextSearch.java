@@ -0,0 +1,55 @@
+package com.sokoby.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class FullTextSearch {
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+
+    private FullTextSearch() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Turns free text into a prefix-matching tsquery such as {@code red:* & sho:*}.
+     * Only letters and digits survive, so the result is always safe to pass to to_tsquery.
+     *
+     * @return the tsquery, or null when the input has no searchable terms
+     */
+    public static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(TERM_SEPARATOR.split(query.trim().toLowerCase()))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+
+    /**
+     * Runs the ranked full-text query and falls back to the LIKE query when full-text search is
+     * disabled, the input has no searchable terms, or nothing matched (e.g. a mid-word substring).
+     * Ranked results are ordered by relevance, so the caller's sort is dropped for that path.
+     */
+    public static <T> Page<T> search(String query, Pageable pageable, boolean fullTextEnabled,
+                                     BiFunction<String, Pageable, Page<T>> fullText, Supplier<Page<T>> fallback) {
+        String tsQuery = fullTextEnabled ? toPrefixTsQuery(query) : null;
+        if (tsQuery != null) {
+            Page<T> ranked = fullText.apply(tsQuery, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            if (ranked.getTotalElements() > 0) {
+                return ranked;
+            }
+        }
+        return fallback.get();
+    }
+}
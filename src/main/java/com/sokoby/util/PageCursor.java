@@ -0,0 +1,86 @@
+package com.sokoby.util;
+
+import com.sokoby.exception.MerchantException;
+import com.sokoby.payload.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset position over (createdAt, id), newest first. Listings fetch rows strictly after the
+ * cursor using an indexed range predicate instead of OFFSET, so every page costs the same
+ * regardless of depth, and no count query is issued.
+ */
+public class PageCursor {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    // Sorts after every real row, so the first page uses the same query as later pages
+    private static final PageCursor FIRST_PAGE = new PageCursor(
+            new Date(253402300799000L), UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+
+    private final Date createdAt;
+    private final UUID id;
+
+    private PageCursor(Date createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new PageCursor(new Date(Long.parseLong(decoded.substring(0, separator))),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new MerchantException("Invalid page cursor", "INVALID_CURSOR");
+        }
+    }
+
+    public static String encode(Date createdAt, UUID id) {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Asks for one extra row so we know whether another page exists without counting
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, clampSize(size) + 1);
+    }
+
+    public static <E, D> CursorPage<D> toPage(List<E> rows, int size, Function<E, Date> createdAt,
+                                              Function<E, UUID> id, Function<E, D> mapper) {
+        int pageSize = clampSize(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            E last = page.get(page.size() - 1);
+            nextCursor = encode(createdAt.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(page.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+
+    private static int clampSize(int size) {
+        if (size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+}
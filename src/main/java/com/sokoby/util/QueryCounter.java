@@ -0,0 +1,62 @@
+package com.sokoby.util;
+
+/**
+ * Per-thread counters for JDBC statements, rows read and entity loads. A request scope is opened
+ * with {@link #start()} and closed with {@link #stop()}; increments outside a scope are ignored.
+ */
+public class QueryCounter {
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void statementExecuted() {
+        Stats stats = CURRENT.get();
+        if (stats != null) stats.statements++;
+    }
+
+    public static void rowRead() {
+        Stats stats = CURRENT.get();
+        if (stats != null) stats.rows++;
+    }
+
+    public static void entityLoaded() {
+        Stats stats = CURRENT.get();
+        if (stats != null) stats.entityLoads++;
+    }
+
+    public static class Stats {
+        private long statements;
+        private long rows;
+        private long entityLoads;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sokoby.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own background executors. They follow
+ * {@code spring.threads.virtual.enabled}, so the same switch moves Tomcat request threads and our
+ * blocking Stripe/S3/JDBC workers onto virtual threads.
+ */
+public class ThreadFactories {
+
+    private ThreadFactories() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : Thread.ofPlatform().name(prefix, 1).factory();
+    }
+}
@@ -0,0 +1,127 @@
+package com.sokoby.config;
+
+import com.sokoby.entity.Address;
+import com.sokoby.entity.Cart;
+import com.sokoby.entity.Customer;
+import com.sokoby.entity.Order;
+import com.sokoby.entity.Payment;
+import com.sokoby.enums.OrderStatus;
+import com.sokoby.repository.CartItemRepository;
+import com.sokoby.repository.CartRepository;
+import com.sokoby.repository.CustomerRepository;
+import com.sokoby.repository.DiscountRepository;
+import com.sokoby.repository.OrderRepository;
+import com.sokoby.repository.PaymentRepository;
+import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.StoreRepository;
+import com.sokoby.repository.VariantRepository;
+import com.sokoby.service.CacheStatsService;
+import com.sokoby.service.CartService;
+import com.sokoby.service.CheckoutSessionService;
+import com.sokoby.service.DashboardStatsService;
+import com.sokoby.service.InventoryService;
+import com.sokoby.service.OrderService;
+import com.sokoby.service.PaymentService;
+import com.sokoby.service.StockReservationService;
+import com.sokoby.service.impl.CartServiceImpl;
+import com.sokoby.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(classes = {CacheConfig.class, OrderServiceImpl.class, CartServiceImpl.class, CacheStatsService.class})
+class CacheConfigTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @MockitoBean
+    private OrderRepository orderRepository;
+    @MockitoBean
+    private StoreRepository storeRepository;
+    @MockitoBean
+    private CustomerRepository customerRepository;
+    @MockitoBean
+    private VariantRepository variantRepository;
+    @MockitoBean
+    private InventoryService inventoryService;
+    @MockitoBean
+    private DiscountRepository discountRepository;
+    @MockitoBean
+    private PaymentRepository paymentRepository;
+    @MockitoBean
+    private PaymentService paymentService;
+    @MockitoBean
+    private ProductRepository productRepository;
+    @MockitoBean
+    private DashboardStatsService dashboardStatsService;
+    @MockitoBean
+    private StockReservationService stockReservationService;
+    @MockitoBean
+    private CheckoutSessionService checkoutSessionService;
+    @MockitoBean
+    private CartRepository cartRepository;
+    @MockitoBean
+    private CartItemRepository cartItemRepository;
+
+    @Test
+    void getOrderByIdIsServedFromCache() {
+        UUID orderId = UUID.randomUUID();
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        Order order = new Order();
+        order.setId(orderId);
+        order.setPayment(payment);
+        order.setShippingAddress(new Address());
+        order.setStatus(OrderStatus.PLACED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        orderService.getOrderById(orderId);
+        orderService.getOrderById(orderId);
+
+        verify(orderRepository, times(1)).findById(orderId);
+        assertCacheHit("orders");
+    }
+
+    @Test
+    void getCartByCustomerIdIsServedFromCache() {
+        UUID customerId = UUID.randomUUID();
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setCustomer(customer);
+        cart.setCartItems(new ArrayList<>());
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(cartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(cart));
+
+        cartService.getCartByCustomerId(customerId);
+        cartService.getCartByCustomerId(customerId);
+
+        verify(cartRepository, times(1)).findByCustomerId(customerId);
+        assertCacheHit("carts");
+    }
+
+    private void assertCacheHit(String cacheName) {
+        Map<String, Object> stats = cacheStatsService.getCacheStats().get(cacheName);
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+}
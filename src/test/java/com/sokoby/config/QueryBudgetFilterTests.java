@@ -0,0 +1,97 @@
+package com.sokoby.config;
+
+import com.sokoby.util.QueryCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(classes = QueryBudgetFilterTests.TestConfig.class)
+@TestPropertySource(locations = "classpath:config/application.properties",
+        properties = {"app.query-budget.endpoints[BudgetController.overBudget]=2",
+                "app.query-budget.endpoints[BudgetController.withinBudget]=2"})
+class QueryBudgetFilterTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(queryBudgetFilter.getFilter()).build();
+    }
+
+    @Test
+    void overBudgetEndpointFailsBeforeItsBodyIsSent() throws Exception {
+        mockMvc.perform(get("/budget/over"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().exists(QueryBudgetFilter.EXCEEDED_HEADER))
+                .andExpect(jsonPath("$.errorCode").value("QUERY_BUDGET_EXCEEDED"));
+    }
+
+    @Test
+    void endpointWithinBudgetIsUntouched() throws Exception {
+        mockMvc.perform(get("/budget/within"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(QueryBudgetFilter.EXCEEDED_HEADER))
+                .andExpect(content().string("ok"));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(QueryCountingConfig.class)
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        BudgetController budgetController() {
+            return new BudgetController();
+        }
+    }
+
+    // Stands in for a controller with an N+1: each "statement" is counted as the JDBC proxy would
+    @RestController
+    static class BudgetController {
+
+        @GetMapping("/budget/over")
+        String overBudget() {
+            for (int i = 0; i < 3; i++) {
+                QueryCounter.statementExecuted();
+            }
+            return "too many queries";
+        }
+
+        @GetMapping("/budget/within")
+        String withinBudget() {
+            QueryCounter.statementExecuted();
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Product;
+import com.sokoby.entity.Store;
+import com.sokoby.entity.Variant;
+import com.sokoby.payload.ProductSuggestionDto;
+import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.VariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchIndexTests {
+
+    private final UUID storeId = UUID.randomUUID();
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class), mock(VariantRepository.class));
+    }
+
+    @Test
+    void tokenizeLowercasesStripsAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("cafe", "creme", "deluxe", "2024"), ProductSearchIndex.tokenize("Café Crème—Deluxe 2024!"));
+        assertEquals(List.of(), ProductSearchIndex.tokenize("  "));
+        assertEquals(List.of(), ProductSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void editDistanceStopsOnceOverTheLimit() {
+        assertEquals(0, ProductSearchIndex.editDistance("shoe", "shoe", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("iphne", "iphone", 1));
+        assertEquals(3, ProductSearchIndex.editDistance("kitten", "sitting", 3));
+        assertEquals(3, ProductSearchIndex.editDistance("kitten", "sitting", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("a", "abcd", 1));
+    }
+
+    @Test
+    void suggestRanksExactThenPrefixThenDescriptionHits() {
+        UUID rack = add("Shoe rack", null);
+        UUID shoes = add("Shoes", null);
+        UUID polish = add("Polish", "Keeps every shoe shining");
+        add("Hat", "Wool");
+
+        List<ProductSuggestionDto> suggestions = index.suggest(storeId, "shoe", 10);
+
+        assertEquals(List.of(rack, shoes, polish), ids(suggestions));
+    }
+
+    @Test
+    void suggestToleratesTyposAndPartialWords() {
+        UUID phone = add("iPhone case", null);
+        UUID sneaker = add("Running sneakers", null);
+
+        assertEquals(List.of(phone), ids(index.suggest(storeId, "iphne", 10)));
+        assertEquals(List.of(sneaker), ids(index.suggest(storeId, "snekers", 10)));
+        assertEquals(List.of(sneaker), ids(index.suggest(storeId, "sneek", 10)));
+        assertTrue(index.suggest(storeId, "ipn", 10).isEmpty());
+    }
+
+    @Test
+    void suggestRequiresEveryTokenAndHonoursTheLimit() {
+        UUID redShoe = add("Red shoe", null);
+        add("Red hat", null);
+        add("Blue shoe", null);
+
+        assertEquals(List.of(redShoe), ids(index.suggest(storeId, "red shoe", 10)));
+        assertEquals(1, index.suggest(storeId, "shoe", 1).size());
+        assertTrue(index.suggest(UUID.randomUUID(), "shoe", 10).isEmpty());
+    }
+
+    @Test
+    void removedProductsStopMatching() {
+        UUID phone = add("iPhone case", null);
+        index.remove(phone);
+
+        assertTrue(index.suggest(storeId, "iphone", 10).isEmpty());
+        assertTrue(index.suggest(storeId, "iphne", 10).isEmpty());
+    }
+
+    @Test
+    void reindexingAfterVariantRenameDropsTheOldName() {
+        Product product = product("Hoodie", null);
+        Variant variant = new Variant();
+        variant.setName("Crimson");
+        variant.setProduct(product);
+        product.getVariants().add(variant);
+        index.index(product);
+        assertEquals(List.of(product.getId()), ids(index.suggest(storeId, "crimson", 10)));
+
+        variant.setName("Scarlet");
+        index.index(product);
+
+        assertTrue(index.suggest(storeId, "crimson", 10).isEmpty());
+        assertEquals(List.of(product.getId()), ids(index.suggest(storeId, "scarlet", 10)));
+    }
+
+    private UUID add(String title, String description) {
+        Product product = product(title, description);
+        index.index(product);
+        return product.getId();
+    }
+
+    private Product product(String title, String description) {
+        Store store = new Store();
+        store.setId(storeId);
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setStore(store);
+        product.setTitle(title);
+        product.setDescription(description);
+        return product;
+    }
+
+    private static List<UUID> ids(List<ProductSuggestionDto> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDto::getId).toList();
+    }
+}
@@ -0,0 +1,171 @@
+package com.sokoby.service;
+
+import com.sokoby.entity.Order;
+import com.sokoby.entity.OrderItem;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.StockReservation;
+import com.sokoby.entity.Variant;
+import com.sokoby.enums.StockMovementReason;
+import com.sokoby.enums.StockReservationStatus;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockReservationServiceTests {
+
+    private StockReservationRepository reservationRepository;
+    private InventoryService inventoryService;
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(StockReservationRepository.class);
+        inventoryService = mock(InventoryService.class);
+        stockReservationService = new StockReservationService(reservationRepository, inventoryService,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(stockReservationService, "holdTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(stockReservationService, "sweepInterval", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(stockReservationService, "sweepBatchSize", 500);
+    }
+
+    @Test
+    void holdThenConvertDeductsStockOnce() {
+        UUID skuId = UUID.randomUUID();
+        Order order = orderWith(skuId, 2, 3);
+        when(inventoryService.deductForSku(skuId, 5, StockMovementReason.RESERVED, order.getId())).thenReturn(true);
+
+        stockReservationService.hold(order);
+
+        List<StockReservation> holds = savedHolds();
+        assertEquals(1, holds.size());
+        StockReservation hold = holds.get(0);
+        assertEquals(skuId, hold.getSkuId());
+        assertEquals(5, hold.getQuantity());
+        assertEquals(StockReservationStatus.HELD, hold.getStatus());
+        assertTrue(hold.getExpiresAt().after(new Date()));
+
+        when(reservationRepository.findByOrderIdForUpdate(order.getId())).thenReturn(holds);
+        stockReservationService.convert(order);
+
+        assertEquals(StockReservationStatus.CONVERTED, hold.getStatus());
+        assertNotNull(hold.getResolvedAt());
+        verify(inventoryService, never()).deductForSku(any(), anyInt(), eq(StockMovementReason.SOLD), any());
+    }
+
+    @Test
+    void holdFailsWhenStockRunsOut() {
+        UUID skuId = UUID.randomUUID();
+        Order order = orderWith(skuId, 1);
+        when(inventoryService.deductForSku(skuId, 1, StockMovementReason.RESERVED, order.getId())).thenReturn(false);
+
+        assertThrows(MerchantException.class, () -> stockReservationService.hold(order));
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void releaseReturnsHeldStock() {
+        UUID skuId = UUID.randomUUID();
+        Order order = orderWith(skuId, 4);
+        when(inventoryService.deductForSku(skuId, 4, StockMovementReason.RESERVED, order.getId())).thenReturn(true);
+        stockReservationService.hold(order);
+        List<StockReservation> holds = savedHolds();
+        when(reservationRepository.findByOrderIdForUpdate(order.getId())).thenReturn(holds);
+
+        stockReservationService.release(order.getId());
+        stockReservationService.release(order.getId());
+
+        verify(inventoryService).restockForSku(skuId, 4, StockMovementReason.RELEASED, order.getId());
+        assertEquals(StockReservationStatus.RELEASED, holds.get(0).getStatus());
+    }
+
+    @Test
+    void convertTakesStockAgainForHoldsThatLapsed() {
+        UUID skuId = UUID.randomUUID();
+        Order order = orderWith(skuId, 2);
+        StockReservation lapsed = reservation(order.getId(), skuId, 2, StockReservationStatus.RELEASED);
+        when(reservationRepository.findByOrderIdForUpdate(order.getId())).thenReturn(new ArrayList<>(List.of(lapsed)));
+        when(inventoryService.deductForSku(skuId, 2, StockMovementReason.SOLD, order.getId())).thenReturn(true);
+
+        stockReservationService.convert(order);
+
+        verify(inventoryService).deductForSku(skuId, 2, StockMovementReason.SOLD, order.getId());
+        assertEquals(StockReservationStatus.CONVERTED, lapsed.getStatus());
+    }
+
+    @Test
+    void sweepReleasesExpiredHoldsPerSku() {
+        UUID firstSku = UUID.randomUUID();
+        UUID secondSku = UUID.randomUUID();
+        List<StockReservation> expired = List.of(
+                reservation(UUID.randomUUID(), firstSku, 1, StockReservationStatus.HELD),
+                reservation(UUID.randomUUID(), firstSku, 2, StockReservationStatus.HELD),
+                reservation(UUID.randomUUID(), secondSku, 5, StockReservationStatus.HELD));
+        when(reservationRepository.lockExpired(any(Date.class), eq(500))).thenReturn(expired);
+
+        ReflectionTestUtils.invokeMethod(stockReservationService, "sweep");
+
+        verify(inventoryService).restockForSku(firstSku, 3, StockMovementReason.EXPIRED, null);
+        verify(inventoryService).restockForSku(secondSku, 5, StockMovementReason.EXPIRED, null);
+        verify(reservationRepository).markReleased(eq(expired.stream().map(StockReservation::getId).toList()),
+                any(Date.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockReservation> savedHolds() {
+        ArgumentCaptor<List<StockReservation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Order orderWith(UUID skuId, int... quantities) {
+        SKU sku = new SKU();
+        sku.setId(skuId);
+        Variant variant = new Variant();
+        variant.setId(UUID.randomUUID());
+        variant.setSku(sku);
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        for (int quantity : quantities) {
+            OrderItem item = new OrderItem();
+            item.setVariant(variant);
+            item.setQuantity(quantity);
+            item.setOrder(order);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    private static StockReservation reservation(UUID orderId, UUID skuId, int quantity, StockReservationStatus status) {
+        StockReservation reservation = new StockReservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setOrderId(orderId);
+        reservation.setSkuId(skuId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(status);
+        reservation.setExpiresAt(new Date());
+        return reservation;
+    }
+}
@@ -0,0 +1,122 @@
+package com.sokoby.service.impl;
+
+import com.sokoby.entity.Inventory;
+import com.sokoby.entity.Merchant;
+import com.sokoby.entity.Product;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.Store;
+import com.sokoby.enums.ProductStatus;
+import com.sokoby.exception.MerchantException;
+import com.sokoby.repository.InventoryRepository;
+import com.sokoby.repository.MerchantRepository;
+import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.StoreRepository;
+import com.sokoby.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class InventoryServiceImplConcurrencyTests {
+
+    private static final int INITIAL_STOCK = 25;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 200;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Product product = createProductWithStock(INITIAL_STOCK);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserveStockForProduct(product.getId(), 1);
+                    reserved.incrementAndGet();
+                } catch (MerchantException e) {
+                    assertEquals("INSUFFICIENT_STOCK", e.getErrorCode());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Inventory inventory = inventoryRepository.findBySku(product.getSku()).orElseThrow();
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(ATTEMPTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, inventory.getStockQuantity());
+    }
+
+    private Product createProductWithStock(int stock) {
+        String suffix = UUID.randomUUID().toString();
+
+        Merchant merchant = new Merchant();
+        merchant.setEmail("inventory-" + suffix + "@test.local");
+        merchant.setPassword("password");
+        merchant.setFirstName("Test");
+        merchant.setLastName("Merchant");
+        merchant = merchantRepository.save(merchant);
+
+        Store store = new Store();
+        store.setMerchant(merchant);
+        store.setName("Concurrency Store");
+        store.setDomain("store-" + suffix);
+        store = storeRepository.save(store);
+
+        SKU sku = new SKU();
+        sku.setSkuCode("SKU-" + suffix);
+
+        Product product = new Product();
+        product.setStore(store);
+        product.setTitle("Flash Sale Item");
+        product.setPrice(10.0);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setSku(sku);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory();
+        inventory.setSku(product.getSku());
+        inventory.setStockQuantity(stock);
+        inventoryRepository.save(inventory);
+        return product;
+    }
+}
@@ -0,0 +1,171 @@
+package com.sokoby.service.impl;
+
+import com.sokoby.entity.Collection;
+import com.sokoby.entity.Inventory;
+import com.sokoby.entity.Merchant;
+import com.sokoby.entity.Product;
+import com.sokoby.entity.ProductImage;
+import com.sokoby.entity.SKU;
+import com.sokoby.entity.Store;
+import com.sokoby.entity.Variant;
+import com.sokoby.enums.CollectionType;
+import com.sokoby.enums.ProductStatus;
+import com.sokoby.repository.CollectionRepository;
+import com.sokoby.repository.MerchantRepository;
+import com.sokoby.repository.ProductRepository;
+import com.sokoby.repository.SKURepository;
+import com.sokoby.repository.StoreRepository;
+import com.sokoby.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Verifies the Product fetch plans: statement counts must not grow with the number of products or variants
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductFetchPlanTests {
+
+    private static final long LISTING_STATEMENT_BUDGET = 10;
+    private static final long DETAIL_STATEMENT_BUDGET = 6;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private CollectionRepository collectionRepository;
+
+    @Autowired
+    private SKURepository skuRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void storeListingUsesConstantNumberOfStatements() {
+        Store smallStore = createStoreWithProducts(2, 2);
+        Store largeStore = createStoreWithProducts(12, 4);
+
+        long small = countStatements(() -> productService.searchProductsByStore(smallStore.getId(), null, PageRequest.of(0, 50)));
+        long large = countStatements(() -> productService.searchProductsByStore(largeStore.getId(), null, PageRequest.of(0, 50)));
+
+        assertEquals(small, large, "Listing statement count grew with the number of products");
+        assertTrue(large <= LISTING_STATEMENT_BUDGET, "Listing used " + large + " statements");
+    }
+
+    @Test
+    void productDetailUsesConstantNumberOfStatements() {
+        Product fewVariants = createStoreWithProducts(1, 1).getProducts().get(0);
+        Product manyVariants = createStoreWithProducts(1, 8).getProducts().get(0);
+
+        long few = countStatements(() -> productService.getProductById(fewVariants.getId()));
+        long many = countStatements(() -> productService.getProductById(manyVariants.getId()));
+
+        assertEquals(few, many, "Detail statement count grew with the number of variants");
+        assertTrue(many <= DETAIL_STATEMENT_BUDGET, "Detail used " + many + " statements");
+    }
+
+    // Runs inside one transaction to mirror the open-session-in-view scope of a web request
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> action.run());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Store createStoreWithProducts(int productCount, int variantsPerProduct) {
+        String suffix = UUID.randomUUID().toString();
+        return transactionTemplate.execute(status -> {
+            Merchant merchant = new Merchant();
+            merchant.setEmail("fetch-" + suffix + "@test.local");
+            merchant.setPassword("password");
+            merchant.setFirstName("Fetch");
+            merchant.setLastName("Plan");
+            merchant = merchantRepository.save(merchant);
+
+            Store store = new Store();
+            store.setMerchant(merchant);
+            store.setName("Fetch Plan Store");
+            store.setDomain("fetch-" + suffix);
+            store = storeRepository.save(store);
+
+            Collection collection = new Collection();
+            collection.setStore(store);
+            collection.setProductType("Apparel");
+            collection.setType(CollectionType.NEW_ARRIVAL);
+            collection = collectionRepository.save(collection);
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < productCount; i++) {
+                Product product = new Product();
+                product.setStore(store);
+                product.setTitle("Product " + i);
+                product.setPrice(10.0 + i);
+                product.setStatus(ProductStatus.ACTIVE);
+                product.setSku(sku(suffix + "-p" + i, 5));
+                product.setInventory(product.getSku().getInventory());
+                product.getCollections().add(collection);
+
+                for (int v = 0; v < variantsPerProduct; v++) {
+                    Variant variant = new Variant();
+                    variant.setName("Variant " + v);
+                    variant.setPrice(10.0 + v);
+                    variant.setProduct(product);
+                    // Variant does not cascade to its SKU, so persist it (and its inventory) first
+                    variant.setSku(skuRepository.save(sku(suffix + "-p" + i + "-v" + v, 3)));
+                    variant.setInventoryItem(variant.getSku().getInventory());
+                    product.getVariants().add(variant);
+                }
+
+                ProductImage image = new ProductImage();
+                image.setImageUrl("https://images.test/" + suffix + "/" + i + ".jpg");
+                image.setProduct(product);
+                product.getProductImages().add(image);
+
+                products.add(productRepository.save(product));
+            }
+            store.setProducts(products);
+            return store;
+        });
+    }
+
+    private SKU sku(String code, int stock) {
+        SKU sku = new SKU();
+        sku.setSkuCode("SKU-" + code);
+        Inventory inventory = new Inventory();
+        inventory.setSku(sku);
+        inventory.setStockQuantity(stock);
+        sku.setInventory(inventory);
+        return sku;
+    }
+}